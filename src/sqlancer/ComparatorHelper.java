@@ -1,14 +1,16 @@
 package sqlancer;
 
-import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import sqlancer.common.query.ColumnarResult;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.MultisetHash;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
 
@@ -27,7 +29,7 @@ public final class ComparatorHelper {
         }
     }
 
-    static boolean equals(double a, double b) {
+    public static boolean equals(double a, double b) {
         if (a == b) {
             return true;
         }
@@ -37,27 +39,84 @@ public final class ComparatorHelper {
 
     public static List<String> getResultSetFirstColumnAsString(String queryString, ExpectedErrors errors,
             SQLGlobalState<?, ?> state) throws SQLException {
+        List<String> resultSet = new ArrayList<>();
+        fetchFirstColumn(queryString, errors, state, resultSet::add);
+        return resultSet;
+    }
+
+    /**
+     * Computes the hash of the values in the first column of the result set, without materializing the result set.
+     *
+     * @param queryString
+     *            the query to execute
+     * @param errors
+     *            the errors that the query is expected to result in
+     * @param state
+     *            the global state
+     *
+     * @return the hash of the multiset of values
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static MultisetHash getResultSetFirstColumnHash(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        MultisetHash resultSet = new MultisetHash();
+        fetchFirstColumn(queryString, errors, state, resultSet::add);
+        return resultSet;
+    }
+
+    /**
+     * Executes the query and reads all values of the result set, for example, to compare them using
+     * {@link ColumnarResult#rowsEqual(ColumnarResult)}.
+     *
+     * @param queryString
+     *            the query to execute
+     * @param errors
+     *            the errors that the query is expected to result in
+     * @param state
+     *            the global state
+     *
+     * @return the values of the result set
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static ColumnarResult getColumnarResult(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        return executeAndRead(queryString, errors, state, false, ColumnarResult::fetch);
+    }
+
+    @FunctionalInterface
+    private interface ResultSetReader<T> {
+        T read(SQLancerResultSet result) throws SQLException;
+    }
+
+    // streams the result set, since only a single value is kept per row, if at all
+    private static void fetchFirstColumn(String queryString, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            Consumer<String> values) throws SQLException {
+        executeAndRead(queryString, errors, state, true, result -> {
+            while (result.next()) {
+                values.accept(result.getString(1));
+            }
+            return null;
+        });
+    }
+
+    private static <T> T executeAndRead(String queryString, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            boolean stream, ResultSetReader<T> reader) throws SQLException {
         if (state.getOptions().logEachSelect()) {
-            // TODO: refactor me
             state.getLogger().writeCurrent(queryString);
-            try {
-                state.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
         }
+        state.checkEstimatedCardinality(queryString);
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors);
-        List<String> resultSet = new ArrayList<>();
         SQLancerResultSet result = null;
         try {
-            result = q.executeAndGet(state);
+            result = stream ? q.executeAndStream(state) : q.executeAndGet(state);
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            while (result.next()) {
-                resultSet.add(result.getString(1));
-            }
+            return reader.read(result);
         } catch (Exception e) {
             if (e instanceof IgnoreMeException) {
                 throw e;
@@ -78,7 +137,6 @@ public final class ComparatorHelper {
                 result.close();
             }
         }
-        return resultSet;
     }
 
     public static void assumeResultSetsAreEqual(List<String> resultSet, List<String> secondResultSet,
@@ -94,14 +152,10 @@ public final class ComparatorHelper {
             throw new AssertionError(assertionMessage);
         }
 
-        Set<String> firstHashSet = new HashSet<>(resultSet);
-        Set<String> secondHashSet = new HashSet<>(secondResultSet);
+        List<String> firstResultSetMisses = getMultisetDifference(resultSet, secondResultSet);
+        List<String> secondResultSetMisses = getMultisetDifference(secondResultSet, resultSet);
 
-        if (!firstHashSet.equals(secondHashSet)) {
-            Set<String> firstResultSetMisses = new HashSet<>(firstHashSet);
-            firstResultSetMisses.removeAll(secondHashSet);
-            Set<String> secondResultSetMisses = new HashSet<>(secondHashSet);
-            secondResultSetMisses.removeAll(firstHashSet);
+        if (!firstResultSetMisses.isEmpty() || !secondResultSetMisses.isEmpty()) {
             String queryFormatString = "-- %s;\n-- misses: %s";
             String firstQueryString = String.format(queryFormatString, originalQueryString, firstResultSetMisses);
             String secondQueryString = String.format(queryFormatString,
@@ -114,20 +168,87 @@ public final class ComparatorHelper {
         }
     }
 
-    public static List<String> getCombinedResultSet(String firstQueryString, String secondQueryString,
+    /**
+     * Checks that the hashes of two result sets are equal. Only if they are not, the result sets are fetched again and
+     * materialized, to report in which values they differ. If the result sets fetched again agree, and their hash
+     * matches one of the original hashes, the mismatch is not reproducible, and the test case is ignored.
+     *
+     * @param resultSet
+     *            the hash of the result set of the original query
+     * @param secondResultSet
+     *            the hash of the combined result set of the queries in combinedString
+     * @param originalQueryString
+     *            the original query
+     * @param combinedString
+     *            the queries whose result sets were combined
+     * @param state
+     *            the global state
+     * @param errors
+     *            the errors that the queries are expected to result in
+     *
+     * @throws SQLException
+     *             if the result sets cannot be read again
+     */
+    public static void assumeResultSetsAreEqual(MultisetHash resultSet, MultisetHash secondResultSet,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state,
+            ExpectedErrors errors) throws SQLException {
+        if (resultSet.equals(secondResultSet)) {
+            return;
+        }
+        List<String> firstValues = getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        List<String> secondValues = new ArrayList<>();
+        for (String queryString : combinedString) {
+            secondValues.addAll(getResultSetFirstColumnAsString(queryString, errors, state));
+        }
+        assumeResultSetsAreEqual(firstValues, secondValues, originalQueryString, combinedString, state);
+        MultisetHash refetchedResultSet = new MultisetHash();
+        firstValues.forEach(refetchedResultSet::add);
+        if (refetchedResultSet.equals(resultSet) || refetchedResultSet.equals(secondResultSet)) {
+            // one of the queries returned a different result set when it was executed again
+            throw new IgnoreMeException();
+        }
+        String queryFormatString = "-- %s;\n-- hash: %s";
+        String firstQueryString = String.format(queryFormatString, originalQueryString, resultSet);
+        String secondQueryString = String.format(queryFormatString,
+                combinedString.stream().collect(Collectors.joining(";")), secondResultSet);
+        state.getState().getLocalState().log(String.format("%s\n%s", firstQueryString, secondQueryString));
+        throw new AssertionError(String.format(
+                "the hashes of the result sets mismatch, but neither matches the result sets fetched again!\n%s\n%s",
+                firstQueryString, secondQueryString));
+    }
+
+    // returns the values in the first list that are not matched by an occurrence of the same value in the second list
+    private static List<String> getMultisetDifference(List<String> first, List<String> second) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String value : second) {
+            counts.merge(value, 1, Integer::sum);
+        }
+        List<String> difference = new ArrayList<>();
+        for (String value : first) {
+            Integer count = counts.get(value);
+            if (count == null || count == 0) {
+                difference.add(value);
+            } else {
+                counts.put(value, count - 1);
+            }
+        }
+        return difference;
+    }
+
+    public static MultisetHash getCombinedResultSet(String firstQueryString, String secondQueryString,
             String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
             ExpectedErrors errors) throws SQLException {
-        List<String> secondResultSet;
+        MultisetHash secondResultSet;
         if (asUnion) {
             String unionString = firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL "
                     + thirdQueryString;
             combinedString.add(unionString);
-            secondResultSet = getResultSetFirstColumnAsString(unionString, errors, state);
+            secondResultSet = getResultSetFirstColumnHash(unionString, errors, state);
         } else {
-            secondResultSet = new ArrayList<>();
-            secondResultSet.addAll(getResultSetFirstColumnAsString(firstQueryString, errors, state));
-            secondResultSet.addAll(getResultSetFirstColumnAsString(secondQueryString, errors, state));
-            secondResultSet.addAll(getResultSetFirstColumnAsString(thirdQueryString, errors, state));
+            secondResultSet = new MultisetHash();
+            fetchFirstColumn(firstQueryString, errors, state, secondResultSet::add);
+            fetchFirstColumn(secondQueryString, errors, state, secondResultSet::add);
+            fetchFirstColumn(thirdQueryString, errors, state, secondResultSet::add);
             combinedString.add(firstQueryString);
             combinedString.add(secondQueryString);
             combinedString.add(thirdQueryString);
@@ -135,7 +256,7 @@ public final class ComparatorHelper {
         return secondResultSet;
     }
 
-    public static List<String> getCombinedResultSetNoDuplicates(String firstQueryString, String secondQueryString,
+    public static MultisetHash getCombinedResultSetNoDuplicates(String firstQueryString, String secondQueryString,
             String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
             ExpectedErrors errors) throws SQLException {
         String unionString;
@@ -145,9 +266,9 @@ public final class ComparatorHelper {
             unionString = "SELECT DISTINCT * FROM (" + firstQueryString + " UNION ALL " + secondQueryString
                     + " UNION ALL " + thirdQueryString + ")";
         }
-        List<String> secondResultSet;
+        MultisetHash secondResultSet;
         combinedString.add(unionString);
-        secondResultSet = getResultSetFirstColumnAsString(unionString, errors, state);
+        secondResultSet = getResultSetFirstColumnHash(unionString, errors, state);
         return secondResultSet;
     }
 
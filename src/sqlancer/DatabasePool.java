@@ -0,0 +1,192 @@
+package sqlancer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import sqlancer.common.metrics.LatencyHistogram;
+
+/**
+ * Creates empty databases of server DBMSs in the background (see --database-pool-size), so that dropping and creating a
+ * database and connecting to it is not in the critical path of the testing threads. Each thread, which always uses the
+ * same database name, gets its own pool, which cycles through the names {@code <database name>_0} to
+ * {@code <database name>_<pool size>}. A database is only created again after the thread has moved on to the next one,
+ * so the database that is being tested is never dropped.
+ */
+public final class DatabasePool {
+
+    private static final LatencyHistogram WAIT_LATENCY = Main.METRICS.histogram("database_pool_wait");
+    private static final LatencyHistogram SAVED_TIME = Main.METRICS.histogram("database_pool_saved");
+    private static final LongAdder NR_PREPARED_DATABASES = Main.METRICS.counter("database_pool_prepared_databases");
+    private static final ConcurrentMap<String, Pool> POOLS = new ConcurrentHashMap<>();
+    private static volatile ExecutorService executor;
+
+    private DatabasePool() {
+    }
+
+    /**
+     * Creates an empty database with the given name, replacing any existing database of the same name, and connects
+     * to it. The creator can be called from a background thread, so it must not access the global state.
+     */
+    @FunctionalInterface
+    public interface DatabaseCreator {
+        Connection createDatabase(String databaseName) throws SQLException;
+    }
+
+    private static final class PreparedDatabase {
+
+        private final String databaseName;
+        private final Connection connection;
+        private final long creationNanos;
+
+        PreparedDatabase(String databaseName, Connection connection, long creationNanos) {
+            this.databaseName = databaseName;
+            this.connection = connection;
+            this.creationNanos = creationNanos;
+        }
+
+    }
+
+    private static final class Pool {
+
+        private final int size;
+        private final DatabaseCreator creator;
+        private final String databaseName;
+        private final Deque<Future<PreparedDatabase>> preparedDatabases = new ArrayDeque<>();
+        private int nextIndex;
+        private boolean closed;
+
+        Pool(int size, DatabaseCreator creator, String databaseName) {
+            this.size = size;
+            this.creator = creator;
+            this.databaseName = databaseName;
+            // one name is left for the database that the thread is going to take first
+            while (preparedDatabases.size() < size) {
+                prepareNext();
+            }
+        }
+
+        private void prepareNext() {
+            String name = databaseName + "_" + nextIndex;
+            nextIndex = (nextIndex + 1) % (size + 1);
+            preparedDatabases.add(executor.submit(() -> {
+                long startNanos = System.nanoTime();
+                Connection con = creator.createDatabase(name);
+                NR_PREPARED_DATABASES.increment();
+                return new PreparedDatabase(name, con, System.nanoTime() - startNanos);
+            }));
+        }
+
+        synchronized PreparedDatabase take() throws SQLException {
+            if (closed) {
+                throw new SQLException("the database pool has been closed");
+            }
+            Future<PreparedDatabase> future = preparedDatabases.poll();
+            long startNanos = System.nanoTime();
+            try {
+                PreparedDatabase database = future.get();
+                long waitNanos = System.nanoTime() - startNanos;
+                WAIT_LATENCY.record(waitNanos);
+                SAVED_TIME.record(Math.max(0, database.creationNanos - waitNanos));
+                return database;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    throw (SQLException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new SQLException(cause);
+            } finally {
+                prepareNext();
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            for (Future<PreparedDatabase> future : preparedDatabases) {
+                if (future.cancel(false)) {
+                    continue;
+                }
+                // the database is being or has been created, so its connection has to be closed
+                try {
+                    future.get().connection.close();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException | SQLException e) {
+                    // the database could not be created or the connection is already broken
+                }
+            }
+            preparedDatabases.clear();
+        }
+
+    }
+
+    /**
+     * Gets an empty database for the given global state, and sets the database name of the global state to its name.
+     * Without --database-pool-size, or for the connection test, the database is created by the calling thread under
+     * the database name of the global state.
+     *
+     * @param globalState
+     *            the global state of the database that is about to be generated
+     * @param creator
+     *            creates an empty database; the creator that is passed in the first call for a database name is used
+     *            for all databases of its pool
+     *
+     * @return the connection to the database
+     *
+     * @throws SQLException
+     *             if creating the database failed
+     */
+    public static Connection getDatabase(GlobalState<?, ?, ?> globalState, DatabaseCreator creator)
+            throws SQLException {
+        int size = globalState.getOptions().getDatabasePoolSize();
+        if (size == 0 || globalState.isConnectionTest()) {
+            return creator.createDatabase(globalState.getDatabaseName());
+        }
+        if (executor == null) {
+            startExecutor();
+        }
+        Pool pool = POOLS.computeIfAbsent(globalState.getDatabaseName(), n -> new Pool(size, creator, n));
+        PreparedDatabase database = pool.take();
+        globalState.setDatabaseName(database.databaseName);
+        return database.connection;
+    }
+
+    /**
+     * Closes the connections to the databases that have been created, but not used, and removes the pools, so that a
+     * subsequent run starts with new pools.
+     */
+    public static void closeAll() {
+        for (Pool pool : POOLS.values()) {
+            pool.close();
+        }
+        POOLS.clear();
+    }
+
+    private static synchronized void startExecutor() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "database-pool");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+}
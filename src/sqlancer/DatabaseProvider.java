@@ -32,6 +32,22 @@ public interface DatabaseProvider<G extends GlobalState<O, ?, C>, O extends DBMS
 
     C createDatabase(G globalState) throws Exception;
 
+    /**
+     * Takes a snapshot of the database that has been generated, from which copies of the database can be created.
+     *
+     * @param globalState
+     *            the state of the generated database
+     *
+     * @return the snapshot, or null if the DBMS or the generated database does not support snapshots, for example,
+     *         since it contains temporary tables, which cannot be copied
+     *
+     * @throws Exception
+     *             if taking the snapshot fails
+     */
+    default DatabaseSnapshot<C> createSnapshot(G globalState) throws Exception {
+        return null;
+    }
+
     /**
      * The DBMS name is used to name the log directory and command to test the respective DBMS.
      *
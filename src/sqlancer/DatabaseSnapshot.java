@@ -0,0 +1,33 @@
+package sqlancer;
+
+/**
+ * A snapshot of a generated database, from which independent copies of the database can be created, so that the cost
+ * of generating the database is shared by several oracle runs (see --database-clones).
+ *
+ * @param <C>
+ *            the type of the connection to a copy of the database
+ */
+public interface DatabaseSnapshot<C extends SQLancerDBConnection> extends AutoCloseable {
+
+    /**
+     * Creates a copy of the database as it was when the snapshot was taken, replacing any database of the same name.
+     * Like the generated database itself, the copy is not deleted after it has been used, so that it can be inspected
+     * if it triggered a bug.
+     *
+     * @param cloneName
+     *            the name of the copy, which is a valid database name
+     *
+     * @return a connection to the copy
+     *
+     * @throws Exception
+     *             if the copy cannot be created
+     */
+    C createClone(String cloneName) throws Exception;
+
+    /**
+     * Deletes the snapshot, but not the copies that have been created from it.
+     */
+    @Override
+    void close() throws Exception;
+
+}
@@ -0,0 +1,62 @@
+package sqlancer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Determines how the worker threads that each test a separate database are created. Each {@link Main.DBMSExecutor}
+ * spends most of its time blocked in JDBC calls, so for server DBMSs it can pay off to run many more sessions than
+ * there are CPU cores.
+ */
+public enum ExecutorMode {
+
+    /**
+     * Uses a pool of platform threads, whose size is determined by --num-threads.
+     */
+    FIXED {
+        @Override
+        public ExecutorService createExecutorService(int nrConcurrentThreads) {
+            return Executors.newFixedThreadPool(nrConcurrentThreads);
+        }
+    },
+    /**
+     * Starts a platform thread for each database to be tested, ignoring --num-threads.
+     */
+    CACHED {
+        @Override
+        public ExecutorService createExecutorService(int nrConcurrentThreads) {
+            return Executors.newCachedThreadPool();
+        }
+    },
+    /**
+     * Starts a virtual thread for each database to be tested, ignoring --num-threads. Requires a JVM that supports
+     * virtual threads (Java 21 or later).
+     */
+    VIRTUAL {
+        @Override
+        public ExecutorService createExecutorService(int nrConcurrentThreads) {
+            try {
+                // looked up reflectively, since SQLancer is still compiled for Java 8
+                Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factoryMethod.invoke(null);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("virtual threads are not supported by this JVM (Java version "
+                        + System.getProperty("java.version") + ")", e);
+            } catch (ReflectiveOperationException e) {
+                throw new AssertionError(e);
+            }
+        }
+    };
+
+    /**
+     * Creates the executor service that runs the testing threads.
+     *
+     * @param nrConcurrentThreads
+     *            the number of concurrent threads requested using --num-threads
+     *
+     * @return the executor service used to run the {@link Main.DBMSExecutor}s
+     */
+    public abstract ExecutorService createExecutorService(int nrConcurrentThreads);
+
+}
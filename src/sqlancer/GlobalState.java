@@ -1,21 +1,35 @@
 package sqlancer;
 
+import java.util.concurrent.TimeUnit;
+
+import sqlancer.common.metrics.ExecutionPhase;
+import sqlancer.common.metrics.LatencyHistogram;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.common.schema.AbstractSchema;
-import sqlancer.common.schema.AbstractTable;
 
 public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends AbstractSchema<?, ?>, C extends SQLancerDBConnection> {
 
+    /**
+     * Returned by {@link #getSchemaVersion()} if the DBMS does not provide a cheap way to detect schema changes.
+     */
+    protected static final long NO_SCHEMA_VERSION = -1;
+    private static final LatencyHistogram STATEMENT_LATENCY = Main.METRICS.histogram("statement_latency");
+
     protected C databaseConnection;
     private Randomly r;
     private MainOptions options;
     private O dmbsSpecificOptions;
     private S schema;
+    private long schemaVersion = NO_SCHEMA_VERSION;
     private Main.StateLogger logger;
     private StateToReproduce state;
     private Main.QueryManager<C> manager;
     private String databaseName;
+    // whether the database is only created to test the connection, and thus not taken from a DatabasePool
+    private boolean connectionTest;
+    // indexed by ExecutionPhase.ordinal(); only accessed by the thread that tests the database
+    private final long[] phaseTimeNanos = new long[ExecutionPhase.values().length];
 
     public void setConnection(C con) {
         this.databaseConnection = con;
@@ -82,42 +96,96 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         this.databaseName = databaseName;
     }
 
-    private ExecutionTimer executePrologue(Query<?> q) throws Exception {
-        boolean logExecutionTime = getOptions().logExecutionTime();
-        ExecutionTimer timer = null;
-        if (logExecutionTime) {
-            timer = new ExecutionTimer().start();
-        }
+    public boolean isConnectionTest() {
+        return connectionTest;
+    }
+
+    public void setConnectionTest(boolean connectionTest) {
+        this.connectionTest = connectionTest;
+    }
+
+    /**
+     * Returns the time after which a statement is cancelled by the {@link StatementWatchdog}.
+     *
+     * @return the timeout in seconds, or 0 if statements are not cancelled
+     */
+    public int getStatementTimeoutSeconds() {
+        int timeoutSeconds = getOptions().getStatementTimeoutSeconds();
+        return timeoutSeconds == -1 ? getDefaultStatementTimeoutSeconds() : timeoutSeconds;
+    }
+
+    /**
+     * Returns the statement timeout that is used if --statement-timeout-seconds is not specified.
+     *
+     * @return the timeout in seconds, or 0 if statements should not be cancelled
+     */
+    protected int getDefaultStatementTimeoutSeconds() {
+        return 60;
+    }
+
+    private long executePrologue(Query<?> q) throws Exception {
         if (getOptions().printAllStatements()) {
             System.out.println(q.getQueryString());
         }
         if (getOptions().logEachSelect()) {
-            if (logExecutionTime) {
+            if (getOptions().logExecutionTime()) {
                 getLogger().writeCurrentNoLineBreak(q.getQueryString());
             } else {
                 getLogger().writeCurrent(q.getQueryString());
             }
         }
-        return timer;
+        return System.nanoTime();
+    }
+
+    private void recordExecutionTime(Query<?> q, boolean success, long executionTimeNanos) {
+        recordTime(ExecutionPhase.STATEMENT_EXECUTION, executionTimeNanos);
+        STATEMENT_LATENCY.record(executionTimeNanos);
+        long slowStatementThresholdMillis = getOptions().getSlowStatementThresholdMillis();
+        if (slowStatementThresholdMillis >= 0
+                && executionTimeNanos >= TimeUnit.MILLISECONDS.toNanos(slowStatementThresholdMillis)) {
+            // a statement that failed could not be explained either
+            String plan = success && !q.couldAffectSchema() ? getQueryPlan(q) : null;
+            getLogger().logSlowStatement(q.getQueryString(), executionTimeNanos, plan);
+        }
+    }
+
+    /**
+     * Obtains the query plan of a statement that was logged as slow (see --slow-statement-threshold-ms).
+     *
+     * @param q
+     *            the statement that was executed
+     *
+     * @return a textual representation of the query plan, or null if the DBMS does not support obtaining one for the
+     *         statement; implementations must not execute an EXPLAIN that could fail and thereby abort an open
+     *         transaction
+     */
+    protected String getQueryPlan(Query<?> q) {
+        return null;
     }
 
-    protected abstract void executeEpilogue(Query<?> q, boolean success, ExecutionTimer timer) throws Exception;
+    protected abstract void executeEpilogue(Query<?> q, boolean success, long executionTimeNanos) throws Exception;
 
     public boolean executeStatement(Query<C> q, String... fills) throws Exception {
-        ExecutionTimer timer = executePrologue(q);
+        long startTime = executePrologue(q);
         boolean success = manager.execute(q, fills);
-        executeEpilogue(q, success, timer);
+        long executionTimeNanos = System.nanoTime() - startTime;
+        recordExecutionTime(q, success, executionTimeNanos);
+        updateRowCounts(q, success, fills);
+        executeEpilogue(q, success, executionTimeNanos);
         return success;
     }
 
     public SQLancerResultSet executeStatementAndGet(Query<C> q, String... fills) throws Exception {
-        ExecutionTimer timer = executePrologue(q);
+        long startTime = executePrologue(q);
         SQLancerResultSet result = manager.executeAndGet(q, fills);
         boolean success = result != null;
         if (success) {
             result.registerEpilogue(() -> {
+                long executionTimeNanos = System.nanoTime() - startTime;
+                recordExecutionTime(q, success, executionTimeNanos);
+                updateRowCounts(q, success, fills);
                 try {
-                    executeEpilogue(q, success, timer);
+                    executeEpilogue(q, success, executionTimeNanos);
                 } catch (Exception e) {
                     throw new AssertionError(e);
                 }
@@ -126,6 +194,30 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         return result;
     }
 
+    private void updateRowCounts(Query<?> q, boolean success, String... fills) {
+        if (schema != null) {
+            // for prepared statements, the first fill is the statement that is actually executed
+            String query = fills.length > 0 ? fills[0] : q.getQueryString();
+            schema.updateRowCounts(query, success, q.getUpdateCount());
+        }
+    }
+
+    /**
+     * Adds time spent in the given phase to the time breakdown of this database.
+     *
+     * @param phase
+     *            the phase in which the time was spent
+     * @param nanos
+     *            the elapsed time in nanoseconds, as measured by {@link System#nanoTime()}
+     */
+    public void recordTime(ExecutionPhase phase, long nanos) {
+        phaseTimeNanos[phase.ordinal()] += nanos;
+    }
+
+    public long getTimeNanos(ExecutionPhase phase) {
+        return phaseTimeNanos[phase.ordinal()];
+    }
+
     public S getSchema() {
         if (schema == null) {
             try {
@@ -141,13 +233,39 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         this.schema = schema;
     }
 
+    /**
+     * Brings the schema up to date after a statement that could have changed it. The schema is only read again if
+     * {@link #getSchemaVersion()} indicates that it changed since it was last read.
+     *
+     * @throws Exception
+     *             if reading the schema fails
+     */
     public void updateSchema() throws Exception {
-        setSchema(readSchema());
-        for (AbstractTable<?, ?, ?> table : schema.getDatabaseTables()) {
-            table.recomputeCount();
+        long startTime = System.nanoTime();
+        try {
+            long currentSchemaVersion = getSchemaVersion();
+            if (schema == null || currentSchemaVersion == NO_SCHEMA_VERSION || currentSchemaVersion != schemaVersion) {
+                setSchema(readSchema());
+                schemaVersion = currentSchemaVersion;
+            }
+        } finally {
+            recordTime(ExecutionPhase.SCHEMA_REFRESH, System.nanoTime() - startTime);
         }
     }
 
     protected abstract S readSchema() throws Exception;
 
+    /**
+     * Returns a value that changes whenever the schema of the database changes, and that can be obtained much more
+     * cheaply than reading the schema (e.g., SQLite's schema cookie).
+     *
+     * @return the current schema version, or {@link #NO_SCHEMA_VERSION} if the schema must be read again
+     *
+     * @throws Exception
+     *             if obtaining the schema version fails
+     */
+    protected long getSchemaVersion() throws Exception {
+        return NO_SCHEMA_VERSION;
+    }
+
 }
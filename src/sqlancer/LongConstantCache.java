@@ -0,0 +1,119 @@
+package sqlancer;
+
+import java.util.Arrays;
+
+/**
+ * A set of up to a fixed number of long constants, used by {@link Randomly} to reuse previously generated constants.
+ * The values are stored in insertion order in an array, from which a random value can be picked in constant time, and
+ * indexed by an open-addressing hash table of positions, so that checking whether a value is already cached does not
+ * need to scan the array or box the value. Doubles are stored using their bit patterns (see
+ * {@link Double#doubleToLongBits(double)}), which corresponds to the equality of {@link Double#equals(Object)}.
+ */
+final class LongConstantCache {
+
+    /**
+     * The maximum capacity, for which the size of the hash table still fits into an int.
+     */
+    static final int MAX_CAPACITY = 1 << 29;
+    // the arrays grow on demand, since most caches (one per generated database) never fill up
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int capacity;
+    private long[] values;
+    // positions of the values in the array, plus one, so that 0 denotes an empty slot
+    private int[] table;
+    private int mask;
+    private int size;
+
+    LongConstantCache(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(String.valueOf(capacity));
+        }
+        this.capacity = capacity;
+        values = new long[Math.min(capacity, INITIAL_CAPACITY)];
+        table = createTable(values.length);
+        mask = table.length - 1;
+    }
+
+    private static int[] createTable(int nrValues) {
+        // keep the load factor at or below 0.5
+        return new int[Integer.highestOneBit(Math.max(1, nrValues) * 2 - 1) << 1];
+    }
+
+    /**
+     * Adds the value to the cache, unless it is already contained or the cache is full.
+     *
+     * @param value
+     *            the value to be cached
+     */
+    void add(long value) {
+        if (size == capacity) {
+            return;
+        }
+        int slot = hash(value) & mask;
+        while (table[slot] != 0) {
+            if (values[table[slot] - 1] == value) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == values.length) {
+            grow();
+            slot = hash(value) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        values[size] = value;
+        table[slot] = ++size;
+    }
+
+    private void grow() {
+        values = Arrays.copyOf(values, (int) Math.min(capacity, 2L * values.length));
+        table = createTable(values.length);
+        mask = table.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(values[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    boolean contains(long value) {
+        int slot = hash(value) & mask;
+        while (table[slot] != 0) {
+            if (values[table[slot] - 1] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    long get(int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(i));
+        }
+        return values[i];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int hash(long value) {
+        // the finalizer of MurmurHash3, since constants such as small integers would otherwise cluster
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+}
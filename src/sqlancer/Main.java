@@ -4,7 +4,9 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -16,7 +18,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.JCommander.Builder;
@@ -24,7 +26,12 @@ import com.beust.jcommander.JCommander.Builder;
 import sqlancer.citus.CitusProvider;
 import sqlancer.clickhouse.ClickHouseProvider;
 import sqlancer.cockroachdb.CockroachDBProvider;
+import sqlancer.common.log.BufferedLogFileWriter;
 import sqlancer.common.log.Loggable;
+import sqlancer.common.log.StatementJournalWriter;
+import sqlancer.common.log.StatementLogFormat;
+import sqlancer.common.metrics.MetricsExporter;
+import sqlancer.common.metrics.MetricsRegistry;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.duckdb.DuckDBProvider;
@@ -38,10 +45,12 @@ import sqlancer.tidb.TiDBProvider;
 public final class Main {
 
     public static final File LOG_DIRECTORY = new File("logs");
-    public static volatile AtomicLong nrQueries = new AtomicLong();
-    public static volatile AtomicLong nrDatabases = new AtomicLong();
-    public static volatile AtomicLong nrSuccessfulActions = new AtomicLong();
-    public static volatile AtomicLong nrUnsuccessfulActions = new AtomicLong();
+    public static final MetricsRegistry METRICS = new MetricsRegistry();
+    public static final LongAdder NR_QUERIES = METRICS.counter("queries");
+    public static final LongAdder NR_DATABASES = METRICS.counter("databases");
+    public static final LongAdder NR_SUCCESSFUL_ACTIONS = METRICS.counter("successful_statements");
+    public static final LongAdder NR_UNSUCCESSFUL_ACTIONS = METRICS.counter("unsuccessful_statements");
+    public static final LongAdder NR_QUERIES_SKIPPED_FOR_COST = METRICS.counter("queries_skipped_for_cost");
     static int threadsShutdown;
     static boolean progressMonitorStarted;
 
@@ -59,11 +68,16 @@ public final class Main {
 
         private final File loggerFile;
         private File curFile;
+        private final File slowStatementFile;
+        private final File hangingStatementFile;
         private FileWriter logFileWriter;
-        public FileWriter currentFileWriter;
+        public BufferedLogFileWriter currentFileWriter;
         private static final List<String> INITIALIZED_PROVIDER_NAMES = new ArrayList<>();
         private final boolean logEachSelect;
+        private final long logFlushIntervalMillis;
+        private final StatementLogFormat logFormat;
         private final DatabaseProvider<?, ?, ?> databaseProvider;
+        private final StateToReproduce state;
 
         private static final class AlsoWriteToConsoleFileWriter extends FileWriter {
 
@@ -84,18 +98,24 @@ public final class Main {
             }
         }
 
-        public StateLogger(String databaseName, DatabaseProvider<?, ?, ?> provider, MainOptions options) {
+        public StateLogger(String databaseName, DatabaseProvider<?, ?, ?> provider, MainOptions options,
+                StateToReproduce state) {
             File dir = new File(LOG_DIRECTORY, provider.getDBMSName());
             if (dir.exists() && !dir.isDirectory()) {
                 throw new AssertionError(dir);
             }
             ensureExistsAndIsEmpty(dir, provider);
             loggerFile = new File(dir, databaseName + ".log");
+            slowStatementFile = new File(dir, databaseName + "-slow.log");
+            hangingStatementFile = new File(dir, databaseName + "-hang.log");
             logEachSelect = options.logEachSelect();
+            logFlushIntervalMillis = options.getLogFlushIntervalMillis();
+            logFormat = options.getLogEachSelectFormat();
             if (logEachSelect) {
-                curFile = new File(dir, databaseName + "-cur.log");
+                curFile = new File(dir, databaseName + logFormat.getFileSuffix());
             }
             this.databaseProvider = provider;
+            this.state = state;
         }
 
         private void ensureExistsAndIsEmpty(File dir, DatabaseProvider<?, ?, ?> provider) {
@@ -132,13 +152,19 @@ public final class Main {
             return logFileWriter;
         }
 
-        public FileWriter getCurrentFileWriter() {
+        public BufferedLogFileWriter getCurrentFileWriter() {
             if (!logEachSelect) {
                 throw new UnsupportedOperationException();
             }
             if (currentFileWriter == null) {
                 try {
-                    currentFileWriter = new FileWriter(curFile, false);
+                    if (logFormat == StatementLogFormat.TEXT) {
+                        currentFileWriter = new BufferedLogFileWriter(curFile, logFlushIntervalMillis);
+                    } else {
+                        currentFileWriter = new StatementJournalWriter(curFile, logFlushIntervalMillis,
+                                logFormat == StatementLogFormat.COMPRESSED_JOURNAL, databaseProvider.getDBMSName(),
+                                state.getDatabaseName(), state.getDatabaseVersion(), state.getSeedValue());
+                    }
                 } catch (IOException e) {
                     throw new AssertionError(e);
                 }
@@ -173,13 +199,81 @@ public final class Main {
             }
             try {
                 getCurrentFileWriter().write(loggable.getLogString());
-
-                currentFileWriter.flush();
             } catch (IOException e) {
                 throw new AssertionError();
             }
         }
 
+        /**
+         * Appends a statement that exceeded --slow-statement-threshold-ms to the slow statement log. Since such
+         * statements are expected to be rare, the file is opened for each statement.
+         *
+         * @param statement
+         *            the statement that was executed
+         * @param executionTimeNanos
+         *            the time it took to execute the statement
+         * @param plan
+         *            the query plan of the statement, or null if it could not be obtained
+         */
+        public void logSlowStatement(String statement, long executionTimeNanos, String plan) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("-- ");
+            sb.append(TimeUnit.NANOSECONDS.toMillis(executionTimeNanos));
+            sb.append("ms\n");
+            sb.append(statement);
+            sb.append('\n');
+            if (plan != null && !plan.isEmpty()) {
+                for (String line : plan.split("\n")) {
+                    sb.append("--   ");
+                    sb.append(line);
+                    sb.append('\n');
+                }
+            }
+            append(slowStatementFile, sb.toString());
+        }
+
+        /**
+         * Appends a statement that is still running after --hang-threshold-seconds to the log of potentially hanging
+         * statements, together with the stack trace of the thread that executes it. This method is called by the
+         * {@link StatementWatchdog}, rather than by the thread that tests the database.
+         *
+         * @param statement
+         *            the statement that is running
+         * @param executionTimeNanos
+         *            the time the statement has been running for
+         * @param thread
+         *            the thread that executes the statement
+         * @param stackTrace
+         *            the stack trace of the thread
+         */
+        public void logHangingStatement(String statement, long executionTimeNanos, String thread,
+                StackTraceElement... stackTrace) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("-- running for ");
+            sb.append(TimeUnit.NANOSECONDS.toSeconds(executionTimeNanos));
+            sb.append("s\n");
+            sb.append(statement);
+            sb.append('\n');
+            sb.append("-- stack trace of thread ");
+            sb.append(thread);
+            sb.append(":\n");
+            for (StackTraceElement element : stackTrace) {
+                sb.append("--   at ");
+                sb.append(element);
+                sb.append('\n');
+            }
+            append(hangingStatementFile, sb.toString());
+        }
+
+        private static void append(File file, String text) {
+            try {
+                Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
         public void logException(Throwable reduce, StateToReproduce state) {
             Loggable stackTrace = getStackTrace(reduce);
             FileWriter logFileWriter2 = getLogFileWriter();
@@ -202,14 +296,14 @@ public final class Main {
             return databaseProvider.getLoggableFactory().convertStacktraceToLoggable(e1);
         }
 
-        private void printState(FileWriter writer, StateToReproduce state) {
+        private void printState(Writer writer, StateToReproduce state) {
             StringBuilder sb = new StringBuilder();
 
             sb.append(databaseProvider.getLoggableFactory()
                     .getInfo(state.getDatabaseName(), state.getDatabaseVersion(), state.getSeedValue()).getLogString());
 
-            for (Query<?> s : state.getStatements()) {
-                sb.append(s.getQueryString());
+            for (String s : state.getStatements()) {
+                sb.append(s);
                 sb.append('\n');
             }
             try {
@@ -233,7 +327,7 @@ public final class Main {
             globalState.getState().logStatement(q);
             boolean success;
             success = q.execute(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             return success;
         }
 
@@ -241,16 +335,16 @@ public final class Main {
             globalState.getState().logStatement(q);
             SQLancerResultSet result;
             result = q.executeAndGet(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             return result;
         }
 
         public void incrementSelectQueryCount() {
-            Main.nrQueries.addAndGet(1);
+            Main.NR_QUERIES.increment();
         }
 
         public void incrementCreateDatabase() {
-            Main.nrDatabases.addAndGet(1);
+            Main.NR_DATABASES.increment();
         }
 
     }
@@ -292,6 +386,7 @@ public final class Main {
 
         public void testConnection() throws Exception {
             G state = getInitializedGlobalState(options.getRandomSeed());
+            state.setConnectionTest(true);
             try (SQLancerDBConnection con = provider.createDatabase(state)) {
                 return;
             }
@@ -302,7 +397,7 @@ public final class Main {
             stateToRepro = provider.getStateToReproduce(databaseName);
             stateToRepro.seedValue = r.getSeed();
             state.setState(stateToRepro);
-            logger = new StateLogger(databaseName, provider, options);
+            logger = new StateLogger(databaseName, provider, options, stateToRepro);
             state.setRandomly(r);
             state.setDatabaseName(databaseName);
             state.setMainOptions(options);
@@ -335,7 +430,7 @@ public final class Main {
             stateToRepro = provider.getStateToReproduce(databaseName);
             stateToRepro.seedValue = seed;
             state.setState(stateToRepro);
-            logger = new StateLogger(databaseName, provider, options);
+            logger = new StateLogger(databaseName, provider, options, stateToRepro);
             Randomly r = new Randomly(seed);
             state.setRandomly(r);
             state.setDatabaseName(databaseName);
@@ -415,7 +510,23 @@ public final class Main {
             return options.getErrorExitCode();
         }
 
-        Randomly.initialize(options);
+        try {
+            Randomly.initialize(options);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return options.getErrorExitCode();
+        }
+        ExecutorService execService;
+        try {
+            execService = options.getExecutorMode().createExecutorService(options.getNumberConcurrentThreads());
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            return options.getErrorExitCode();
+        }
+        if (options.getMetricsFile() != null) {
+            new MetricsExporter(METRICS, new File(options.getMetricsFile()), options.getMetricsFormat(), "dbms",
+                    jc.getParsedCommand()).start(options.getMetricsIntervalSeconds());
+        }
         if (options.printProgressInformation()) {
             startProgressMonitor();
             if (options.printProgressSummary()) {
@@ -425,12 +536,14 @@ public final class Main {
                     public void run() {
                         System.out.println("Overall execution statistics");
                         System.out.println("============================");
-                        System.out.println(formatInteger(nrQueries.get()) + " queries");
-                        System.out.println(formatInteger(nrDatabases.get()) + " databases");
+                        System.out.println(formatInteger(NR_QUERIES.sum()) + " queries");
+                        System.out.println(formatInteger(NR_DATABASES.sum()) + " databases");
                         System.out.println(
-                                formatInteger(nrSuccessfulActions.get()) + " successfully-executed statements");
+                                formatInteger(NR_SUCCESSFUL_ACTIONS.sum()) + " successfully-executed statements");
                         System.out.println(
-                                formatInteger(nrUnsuccessfulActions.get()) + " unsuccessfuly-executed statements");
+                                formatInteger(NR_UNSUCCESSFUL_ACTIONS.sum()) + " unsuccessfuly-executed statements");
+                        System.out.println(formatInteger(NR_QUERIES_SKIPPED_FOR_COST.sum())
+                                + " queries skipped due to their estimated number of rows");
                     }
 
                     private String formatInteger(long intValue) {
@@ -444,7 +557,6 @@ public final class Main {
             }
         }
 
-        ExecutorService execService = Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
         DBMSExecutorFactory<?, ?, ?> executorFactory = nameToProvider.get(jc.getParsedCommand());
 
         if (options.performConnectionTest()) {
@@ -476,26 +588,33 @@ public final class Main {
                 }
 
                 private void runThread(final String databaseName) {
-                    Randomly r = new Randomly(seed);
+                    // each database gets its own seed, so that it can be reproduced on its own
+                    long databaseSeed = seed;
                     try {
                         if (options.getMaxGeneratedDatabases() == -1) {
                             // run without a limit
                             boolean continueRunning = true;
                             while (continueRunning) {
-                                continueRunning = run(options, execService, executorFactory, r, databaseName);
+                                continueRunning = run(options, execService, executorFactory,
+                                        new Randomly(databaseSeed), databaseName);
+                                databaseSeed = Randomly.getNextDatabaseSeed(databaseSeed);
                             }
                         } else {
                             for (int i = 0; i < options.getMaxGeneratedDatabases(); i++) {
-                                boolean continueRunning = run(options, execService, executorFactory, r, databaseName);
+                                boolean continueRunning = run(options, execService, executorFactory,
+                                        new Randomly(databaseSeed), databaseName);
                                 if (!continueRunning) {
                                     break;
                                 }
+                                databaseSeed = Randomly.getNextDatabaseSeed(databaseSeed);
                             }
                         }
                     } finally {
-                        threadsShutdown++;
-                        if (threadsShutdown == options.getTotalNumberTries()) {
-                            execService.shutdown();
+                        synchronized (Main.class) {
+                            threadsShutdown++;
+                            if (threadsShutdown == options.getTotalNumberTries()) {
+                                execService.shutdown();
+                            }
                         }
                     }
                 }
@@ -515,6 +634,9 @@ public final class Main {
                         executor.getLogger().logException(reduce, executor.getStateToReproduce());
                         return false;
                     } finally {
+                        if (executor.getStateToReproduce() != null) {
+                            executor.getStateToReproduce().discardStatements();
+                        }
                         try {
                             if (options.logEachSelect()) {
                                 if (executor.getLogger().currentFileWriter != null) {
@@ -538,6 +660,7 @@ public final class Main {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        DatabasePool.closeAll();
 
         return threadsShutdown == 0 ? 0 : options.getErrorExitCode();
     }
@@ -581,20 +704,23 @@ public final class Main {
             @Override
             public void run() {
                 long elapsedTimeMillis = System.currentTimeMillis() - timeMillis;
-                long currentNrQueries = nrQueries.get();
+                long currentNrQueries = NR_QUERIES.sum();
                 long nrCurrentQueries = currentNrQueries - lastNrQueries;
                 double throughput = nrCurrentQueries / (elapsedTimeMillis / 1000d);
-                long currentNrDbs = nrDatabases.get();
+                long currentNrDbs = NR_DATABASES.sum();
                 long nrCurrentDbs = currentNrDbs - lastNrDbs;
                 double throughputDbs = nrCurrentDbs / (elapsedTimeMillis / 1000d);
-                long successfulStatementsRatio = (long) (100.0 * nrSuccessfulActions.get()
-                        / (nrSuccessfulActions.get() + nrUnsuccessfulActions.get()));
+                long nrSuccessfulActions = NR_SUCCESSFUL_ACTIONS.sum();
+                long successfulStatementsRatio = (long) (100.0 * nrSuccessfulActions
+                        / (nrSuccessfulActions + NR_UNSUCCESSFUL_ACTIONS.sum()));
                 DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
                 Date date = new Date();
+                long nrSkippedQueries = NR_QUERIES_SKIPPED_FOR_COST.sum();
                 System.out.println(String.format(
-                        "[%s] Executed %d queries (%d queries/s; %.2f/s dbs, successful statements: %2d%%). Threads shut down: %d.",
+                        "[%s] Executed %d queries (%d queries/s; %.2f/s dbs, successful statements: %2d%%). Threads shut down: %d.%s",
                         dateFormat.format(date), currentNrQueries, (int) throughput, throughputDbs,
-                        successfulStatementsRatio, threadsShutdown));
+                        successfulStatementsRatio, threadsShutdown,
+                        nrSkippedQueries == 0 ? "" : " Skipped for cost: " + nrSkippedQueries + "."));
                 timeMillis = System.currentTimeMillis();
                 lastNrQueries = currentNrQueries;
                 lastNrDbs = currentNrDbs;
@@ -4,6 +4,8 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
 import sqlancer.Randomly.StringGenerationStrategy;
+import sqlancer.common.log.StatementLogFormat;
+import sqlancer.common.metrics.MetricsFormat;
 
 @Parameters(separators = "=", commandDescription = "Options applicable to all DBMS")
 public class MainOptions {
@@ -15,6 +17,9 @@ public class MainOptions {
             "--num-threads" }, description = "How many threads should run concurrently to test separate databases")
     private int nrConcurrentThreads = 16; // NOPMD
 
+    @Parameter(names = "--executor", description = "Specifies how the threads that test separate databases are created (FIXED uses --num-threads platform threads, CACHED and VIRTUAL start a platform or virtual thread for each of the --num-tries databases)")
+    private ExecutorMode executorMode = ExecutorMode.FIXED; // NOPMD
+
     @Parameter(names = {
             "--random-seed" }, description = "A seed value != -1 that can be set to make the query and database generation deterministic")
     private long randomSeed = -1; // NOPMD
@@ -43,6 +48,36 @@ public class MainOptions {
     @Parameter(names = "--log-execution-time", description = "Logs the execution time of each statement (requires --log-each-select to be enabled)", arity = 1)
     private boolean logExecutionTime = true; // NOPMD
 
+    @Parameter(names = "--log-flush-interval-ms", description = "The maximum time in milliseconds that statements logged by --log-each-select are buffered before they are written to disk (0 writes every statement immediately)")
+    private long logFlushIntervalMillis = 100; // NOPMD
+
+    @Parameter(names = "--log-each-select-format", description = "The file format of the log written by --log-each-select (the JOURNAL formats can be converted to text using sqlancer.common.log.StatementJournalReader)")
+    private StatementLogFormat logEachSelectFormat = StatementLogFormat.TEXT; // NOPMD
+
+    @Parameter(names = "--slow-statement-threshold-ms", description = "Logs statements whose execution takes at least the given number of milliseconds, together with their query plan, to a separate -slow.log file (-1 disables the slow statement log)")
+    private long slowStatementThresholdMillis = -1; // NOPMD
+
+    @Parameter(names = "--fetch-size", description = "The number of rows that are fetched at a time when an oracle streams a result set, for DBMSs whose drivers otherwise buffer whole result sets (0 disables streaming)")
+    private int fetchSize = 1000; // NOPMD
+
+    @Parameter(names = "--max-estimated-rows", description = "Skips queries of oracles that compare result sets if the DBMS estimates that the query or one of its steps (e.g., a join) produces more than the given number of rows (-1 disables the check, which requires an additional EXPLAIN statement per query)")
+    private long maxEstimatedRows = -1; // NOPMD
+
+    @Parameter(names = "--statement-timeout-seconds", description = "Cancels statements that run for longer than the given number of seconds, whose errors are then ignored (-1 uses the default of the DBMS, 0 disables the timeout)")
+    private int statementTimeoutSeconds = -1; // NOPMD
+
+    @Parameter(names = "--hang-threshold-seconds", description = "Reports statements that are still running after the given number of seconds as potential hangs, together with the stack trace of their thread, and cancels them (-1 disables the check)")
+    private int hangThresholdSeconds = 300; // NOPMD
+
+    @Parameter(names = "--norec-count-folding", description = "Counts the rows of NoREC's optimized query in the DBMS, by wrapping the query in a derived table, rather than by fetching the rows", arity = 1)
+    private boolean noRECCountFolding = true; // NOPMD
+
+    @Parameter(names = "--database-clones", description = "Takes a snapshot of each generated database and runs the test oracles on the given number of copies cloned from it, each for --num-queries queries; if several oracles are used, each oracle is run on its own copies (0 runs the oracles on the generated database itself; ignored by DBMSs that do not support snapshots)")
+    private int nrDatabaseClones; // NOPMD
+
+    @Parameter(names = "--database-pool-size", description = "Creates the given number of empty databases per thread in the background, so that a thread can start generating its next database without waiting for the DBMS to create it; the databases are named <database name>_<i> (0 creates each database when it is needed; only used by server DBMSs)")
+    private int databasePoolSize; // NOPMD
+
     @Parameter(names = "--username", description = "The user name used to log into the DBMS")
     private String userName = "sqlancer"; // NOPMD
 
@@ -55,6 +90,15 @@ public class MainOptions {
     @Parameter(names = "--print-progress-summary", description = "Whether to print an execution summary when exiting SQLancer", arity = 1)
     private boolean printProgressSummary; // NOPMD
 
+    @Parameter(names = "--metrics-file", description = "A file to which counters and latency histograms (per oracle and per statement kind) are periodically written")
+    private String metricsFile; // NOPMD
+
+    @Parameter(names = "--metrics-format", description = "The format of the --metrics-file")
+    private MetricsFormat metricsFormat = MetricsFormat.JSON; // NOPMD
+
+    @Parameter(names = "--metrics-interval-seconds", description = "How often the --metrics-file is updated")
+    private int metricsIntervalSeconds = 10; // NOPMD
+
     @Parameter(names = "--timeout-seconds", description = "The timeout in seconds")
     private int timeoutSeconds = -1; // NOPMD
 
@@ -106,6 +150,10 @@ public class MainOptions {
         return nrConcurrentThreads;
     }
 
+    public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
     public boolean logEachSelect() {
         return logEachSelect;
     }
@@ -131,6 +179,46 @@ public class MainOptions {
         return logExecutionTime;
     }
 
+    public long getLogFlushIntervalMillis() {
+        return logFlushIntervalMillis;
+    }
+
+    public long getSlowStatementThresholdMillis() {
+        return slowStatementThresholdMillis;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public long getMaxEstimatedRows() {
+        return maxEstimatedRows;
+    }
+
+    public int getStatementTimeoutSeconds() {
+        return statementTimeoutSeconds;
+    }
+
+    public int getHangThresholdSeconds() {
+        return hangThresholdSeconds;
+    }
+
+    public boolean useNoRECCountFolding() {
+        return noRECCountFolding;
+    }
+
+    public int getNrDatabaseClones() {
+        return nrDatabaseClones;
+    }
+
+    public int getDatabasePoolSize() {
+        return databasePoolSize;
+    }
+
+    public StatementLogFormat getLogEachSelectFormat() {
+        return logEachSelectFormat;
+    }
+
     public int getNrQueries() {
         return nrQueries;
     }
@@ -159,6 +247,18 @@ public class MainOptions {
         return printProgressSummary;
     }
 
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public MetricsFormat getMetricsFormat() {
+        return metricsFormat;
+    }
+
+    public int getMetricsIntervalSeconds() {
+        return metricsIntervalSeconds;
+    }
+
     public int getTimeoutSeconds() {
         return timeoutSeconds;
     }
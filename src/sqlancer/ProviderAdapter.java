@@ -1,9 +1,13 @@
 package sqlancer;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import sqlancer.StateToReproduce.OracleRunReproductionState;
+import sqlancer.common.metrics.ExecutionPhase;
+import sqlancer.common.metrics.LatencyHistogram;
 import sqlancer.common.oracle.CompositeTestOracle;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.schema.AbstractSchema;
@@ -36,48 +40,127 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
 
     @Override
     public void generateAndTestDatabase(G globalState) throws Exception {
+        long startTime = System.nanoTime();
+        ExecutionPhase phase = ExecutionPhase.GENERATION;
         try {
             generateDatabase(globalState);
             checkViewsAreValid(globalState);
             globalState.getManager().incrementCreateDatabase();
 
-            TestOracle oracle = getTestOracle(globalState);
-            for (int i = 0; i < globalState.getOptions().getNrQueries(); i++) {
-                try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
-                    assert localState != null;
-                    try {
-                        oracle.check();
-                        globalState.getManager().incrementSelectQueryCount();
-                    } catch (IgnoreMeException e) {
-
+            int nrClones = globalState.getOptions().getNrDatabaseClones();
+            try (DatabaseSnapshot<C> snapshot = nrClones == 0 ? null : createSnapshot(globalState)) {
+                if (snapshot == null) {
+                    TestOracle oracle = getTestOracle(globalState);
+                    startTime = recordTime(globalState, phase, startTime);
+                    phase = ExecutionPhase.ORACLE;
+                    executeOracle(globalState, oracle);
+                } else {
+                    List<? extends OracleFactory<G>> testOracleFactory = globalState.getDmbsSpecificOptions()
+                            .getTestOracleFactory();
+                    // each oracle is run on its own copies of the database
+                    for (int i = 0; i < nrClones * testOracleFactory.size(); i++) {
+                        OracleFactory<G> factory = testOracleFactory.get(i % testOracleFactory.size());
+                        String cloneName = globalState.getDatabaseName() + "_clone" + i;
+                        C clone = snapshot.createClone(cloneName);
+                        if (i != 0) {
+                            // the connection to the generated database is closed by the caller
+                            globalState.getConnection().close();
+                        }
+                        globalState.setConnection(clone);
+                        String comment = String.format("-- running %s on %s", factory, cloneName);
+                        globalState.getState().logStatement(comment);
+                        if (globalState.getOptions().logEachSelect()) {
+                            globalState.getLogger().writeCurrent(comment);
+                        }
+                        TestOracle oracle = getTestOracle(globalState, factory);
+                        startTime = recordTime(globalState, phase, startTime);
+                        phase = ExecutionPhase.ORACLE;
+                        executeOracle(globalState, oracle);
+                        startTime = recordTime(globalState, phase, startTime);
+                        phase = ExecutionPhase.GENERATION;
                     }
-                    assert localState != null;
-                    localState.executedWithoutError();
                 }
             }
+        } catch (IgnoreMeException e) {
+            throw e;
+        } catch (Throwable t) {
+            try {
+                preserveDatabase(globalState);
+            } catch (Exception e) {
+                t.addSuppressed(e);
+            }
+            throw t;
         } finally {
+            globalState.recordTime(phase, System.nanoTime() - startTime);
+            reportTimeBreakdown(globalState);
             globalState.getConnection().close();
         }
     }
 
+    private static long recordTime(GlobalState<?, ?, ?> globalState, ExecutionPhase phase, long startTime) {
+        long endTime = System.nanoTime();
+        globalState.recordTime(phase, endTime - startTime);
+        return endTime;
+    }
+
+    private static void executeOracle(GlobalState<?, ?, ?> globalState, TestOracle oracle) throws Exception {
+        for (int i = 0; i < globalState.getOptions().getNrQueries(); i++) {
+            try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
+                assert localState != null;
+                try {
+                    oracle.check();
+                    globalState.getManager().incrementSelectQueryCount();
+                } catch (IgnoreMeException e) {
+
+                }
+                assert localState != null;
+                localState.executedWithoutError();
+            }
+        }
+    }
+
+    private static void reportTimeBreakdown(GlobalState<?, ?, ?> globalState) {
+        StringBuilder sb = new StringBuilder("-- time breakdown:");
+        for (ExecutionPhase phase : ExecutionPhase.values()) {
+            long nanos = globalState.getTimeNanos(phase);
+            Main.METRICS.counter(phase.getCounterName()).add(nanos);
+            sb.append(phase == ExecutionPhase.GENERATION ? " " : ", ");
+            sb.append(phase.getDescription());
+            sb.append(' ');
+            sb.append(TimeUnit.NANOSECONDS.toMillis(nanos));
+            sb.append("ms");
+        }
+        if (globalState.getOptions().logEachSelect() && globalState.getOptions().logExecutionTime()) {
+            globalState.getLogger().writeCurrent(sb.toString());
+        }
+    }
+
     protected abstract void checkViewsAreValid(G globalState);
 
+    /**
+     * Called if testing the database resulted in a potential bug, before the connection is closed, so that a DBMS whose
+     * databases do not outlive their connection (e.g., an in-memory database) can save the database for reproducing
+     * the bug.
+     *
+     * @param globalState
+     *            the global state
+     *
+     * @throws Exception
+     *             if the database cannot be saved
+     */
+    protected void preserveDatabase(G globalState) throws Exception {
+    }
+
     protected TestOracle getTestOracle(G globalState) throws Exception {
         List<? extends OracleFactory<G>> testOracleFactory = globalState.getDmbsSpecificOptions()
                 .getTestOracleFactory();
-        boolean testOracleRequiresMoreThanZeroRows = testOracleFactory.stream()
-                .anyMatch(p -> p.requiresAllTablesToContainRows());
-        boolean userRequiresMoreThanZeroRows = globalState.getOptions().testOnlyWithMoreThanZeroRows();
-        boolean checkZeroRows = testOracleRequiresMoreThanZeroRows || userRequiresMoreThanZeroRows;
-        if (checkZeroRows && globalState.getSchema().containsTableWithZeroRows(globalState)) {
-            throw new IgnoreMeException();
-        }
+        checkTablesContainRows(globalState, testOracleFactory);
         if (testOracleFactory.size() == 1) {
-            return testOracleFactory.get(0).create(globalState);
+            return recordLatency(testOracleFactory.get(0), testOracleFactory.get(0).create(globalState));
         } else {
             return new CompositeTestOracle(testOracleFactory.stream().map(o -> {
                 try {
-                    return o.create(globalState);
+                    return recordLatency(o, o.create(globalState));
                 } catch (Exception e1) {
                     throw new AssertionError(e1);
                 }
@@ -85,6 +168,33 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         }
     }
 
+    private TestOracle getTestOracle(G globalState, OracleFactory<G> testOracleFactory) throws Exception {
+        checkTablesContainRows(globalState, Collections.singletonList(testOracleFactory));
+        return recordLatency(testOracleFactory, testOracleFactory.create(globalState));
+    }
+
+    private void checkTablesContainRows(G globalState, List<? extends OracleFactory<G>> testOracleFactory) {
+        boolean testOracleRequiresMoreThanZeroRows = testOracleFactory.stream()
+                .anyMatch(p -> p.requiresAllTablesToContainRows());
+        boolean userRequiresMoreThanZeroRows = globalState.getOptions().testOnlyWithMoreThanZeroRows();
+        boolean checkZeroRows = testOracleRequiresMoreThanZeroRows || userRequiresMoreThanZeroRows;
+        if (checkZeroRows && globalState.getSchema().containsTableWithZeroRows(globalState)) {
+            throw new IgnoreMeException();
+        }
+    }
+
+    private static TestOracle recordLatency(OracleFactory<?> factory, TestOracle oracle) {
+        LatencyHistogram latency = Main.METRICS.histogram("oracle_latency", "oracle", factory.toString());
+        return () -> {
+            long startTime = System.nanoTime();
+            try {
+                oracle.check();
+            } finally {
+                latency.record(System.nanoTime() - startTime);
+            }
+        };
+    }
+
     public abstract void generateDatabase(G globalState) throws Exception;
 
 }
@@ -4,7 +4,7 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 import java.util.function.Supplier;
 
 public final class Randomly {
@@ -14,38 +14,49 @@ public final class Randomly {
     private static boolean useCaching = true;
     private static int cacheSize = 100;
 
-    private final List<Long> cachedLongs = new ArrayList<>();
-    private final List<String> cachedStrings = new ArrayList<>();
-    private final List<Double> cachedDoubles = new ArrayList<>();
+    private final LongConstantCache cachedLongs = new LongConstantCache(cacheSize);
+    private final StringConstantCache cachedStrings = new StringConstantCache(cacheSize);
+    // the bit patterns of the cached doubles
+    private final LongConstantCache cachedDoubles = new LongConstantCache(cacheSize);
     private final List<byte[]> cachedBytes = new ArrayList<>();
     private Supplier<String> provider;
 
-    private static final ThreadLocal<Random> THREAD_RANDOM = new ThreadLocal<>();
+    // SplittableRandom is not thread-safe, but unlike Random, does not use atomic operations to update its state
+    private static final ThreadLocal<SplittableRandom> THREAD_RANDOM = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> INDEX_BUFFER = ThreadLocal.withInitial(() -> new int[64]);
     private long seed;
 
     private void addToCache(long val) {
-        if (useCaching && cachedLongs.size() < cacheSize && !cachedLongs.contains(val)) {
+        if (useCaching) {
             cachedLongs.add(val);
         }
     }
 
     private void addToCache(double val) {
-        if (useCaching && cachedDoubles.size() < cacheSize && !cachedDoubles.contains(val)) {
-            cachedDoubles.add(val);
+        if (useCaching) {
+            cachedDoubles.add(Double.doubleToLongBits(val));
         }
     }
 
     private void addToCache(String val) {
-        if (useCaching && cachedStrings.size() < cacheSize && !cachedStrings.contains(val)) {
-            cachedStrings.add(val);
+        if (useCaching) {
+            cachedStrings.add(val, cachedStrings.isFull() ? getNextInt(0, cachedStrings.size()) : 0);
         }
     }
 
+    private long getRandomCachedLong() {
+        return cachedLongs.get(getNextInt(0, cachedLongs.size()));
+    }
+
+    private double getRandomCachedDouble() {
+        return Double.longBitsToDouble(cachedDoubles.get(getNextInt(0, cachedDoubles.size())));
+    }
+
     private Long getFromLongCache() {
         if (!useCaching || cachedLongs.isEmpty()) {
             return null;
         } else {
-            return Randomly.fromList(cachedLongs);
+            return getRandomCachedLong();
         }
     }
 
@@ -54,9 +65,9 @@ public final class Randomly {
             return null;
         }
         if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
-            return (double) Randomly.fromList(cachedLongs);
+            return (double) getRandomCachedLong();
         } else if (!cachedDoubles.isEmpty()) {
-            return Randomly.fromList(cachedDoubles);
+            return getRandomCachedDouble();
         } else {
             return null;
         }
@@ -67,14 +78,14 @@ public final class Randomly {
             return null;
         }
         if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
-            return String.valueOf(Randomly.fromList(cachedLongs));
+            return String.valueOf(getRandomCachedLong());
         } else if (Randomly.getBoolean() && !cachedDoubles.isEmpty()) {
-            return String.valueOf(Randomly.fromList(cachedDoubles));
+            return String.valueOf(getRandomCachedDouble());
         } else if (Randomly.getBoolean() && !cachedBytes.isEmpty()
                 && stringGenerationStrategy == StringGenerationStrategy.SOPHISTICATED) {
             return new String(Randomly.fromList(cachedBytes));
         } else if (!cachedStrings.isEmpty()) {
-            String randomString = Randomly.fromList(cachedStrings);
+            String randomString = cachedStrings.get(getNextInt(0, cachedStrings.size()));
             if (Randomly.getBoolean()) {
                 return randomString;
             } else {
@@ -92,7 +103,7 @@ public final class Randomly {
     // CACHING END
 
     public static <T> T fromList(List<T> list) {
-        return list.get((int) getNextLong(0, list.size()));
+        return list.get(getNextInt(0, list.size()));
     }
 
     @SafeVarargs
@@ -132,46 +143,88 @@ public final class Randomly {
     }
 
     public static <T> List<T> subset(int nr, @SuppressWarnings("unchecked") T... values) {
-        List<T> list = new ArrayList<>();
-        for (T val : values) {
-            list.add(val);
-        }
-        return extractNrRandomColumns(list, nr);
+        return extractNrRandomColumns(Arrays.asList(values), nr);
     }
 
     public static <T> List<T> subset(@SuppressWarnings("unchecked") T... values) {
-        List<T> list = new ArrayList<>();
-        for (T val : values) {
-            list.add(val);
-        }
-        return subset(list);
-    }
-
+        return subset(Arrays.asList(values));
+    }
+
+    /**
+     * Selects nr distinct elements of the given list in a random order. Rather than copying the list and removing the
+     * selected elements from the copy, this performs a partial Fisher-Yates shuffle on a reusable buffer of indexes, so
+     * that only the first nr positions are shuffled.
+     *
+     * @param <T>
+     *            the element type
+     * @param columns
+     *            the list to select from, which is not modified
+     * @param nr
+     *            the number of elements to select
+     *
+     * @return a new list with the selected elements
+     */
     public static <T> List<T> extractNrRandomColumns(List<T> columns, int nr) {
         assert nr >= 0;
-        List<T> selectedColumns = new ArrayList<>();
-        List<T> remainingColumns = new ArrayList<>(columns);
+        int size = columns.size();
+        if (nr > size) {
+            throw new IndexOutOfBoundsException(nr + " " + size);
+        }
+        int[] indexes = getIndexBuffer(size);
+        List<T> selectedColumns = new ArrayList<>(nr);
         for (int i = 0; i < nr; i++) {
-            selectedColumns.add(remainingColumns.remove(getNextInt(0, remainingColumns.size())));
+            int j = getNextInt(i, size);
+            int selected = indexes[j];
+            indexes[j] = indexes[i];
+            indexes[i] = selected;
+            selectedColumns.add(columns.get(selected));
         }
         return selectedColumns;
     }
 
+    // returns the thread's index buffer, with the first size positions set to 0, 1, ..., size - 1
+    private static int[] getIndexBuffer(int size) {
+        int[] indexes = INDEX_BUFFER.get();
+        if (indexes.length < size) {
+            indexes = new int[Math.max(size, indexes.length * 2)];
+            INDEX_BUFFER.set(indexes);
+        }
+        for (int i = 0; i < size; i++) {
+            indexes[i] = i;
+        }
+        return indexes;
+    }
+
     public static int smallNumber() {
         // no need to cache for small numbers
-        return (int) (Math.abs(getThreadRandom().get().nextGaussian()) * 2);
+        return (int) (Math.abs(nextGaussian(getThreadRandom())) * 2);
     }
 
     public static boolean getBoolean() {
-        return getThreadRandom().get().nextBoolean();
+        return getThreadRandom().nextBoolean();
     }
 
-    private static ThreadLocal<Random> getThreadRandom() {
-        if (THREAD_RANDOM.get() == null) {
+    private static SplittableRandom getThreadRandom() {
+        SplittableRandom random = THREAD_RANDOM.get();
+        if (random == null) {
             // a static method has been called, before Randomly was instantiated
-            THREAD_RANDOM.set(new Random());
+            random = new SplittableRandom();
+            THREAD_RANDOM.set(random);
         }
-        return THREAD_RANDOM;
+        return random;
+    }
+
+    // the polar method, as used by Random.nextGaussian(), which SplittableRandom lacks before Java 17
+    private static double nextGaussian(SplittableRandom random) {
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2 * random.nextDouble() - 1;
+            v2 = 2 * random.nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
     }
 
     public long getInteger() {
@@ -184,7 +237,7 @@ public final class Randomly {
                     return l;
                 }
             }
-            long nextLong = getThreadRandom().get().nextInt();
+            long nextLong = getThreadRandom().nextInt();
             addToCache(nextLong);
             return nextLong;
         }
@@ -328,7 +381,14 @@ public final class Randomly {
     public byte[] getBytes() {
         int size = Randomly.smallNumber();
         byte[] arr = new byte[size];
-        getThreadRandom().get().nextBytes(arr);
+        SplittableRandom random = getThreadRandom();
+        for (int i = 0; i < size; i += Long.BYTES) {
+            long bytes = random.nextLong();
+            for (int j = i; j < Math.min(size, i + Long.BYTES); j++) {
+                arr[j] = (byte) bytes;
+                bytes >>>= Byte.SIZE;
+            }
+        }
         return arr;
     }
 
@@ -388,17 +448,17 @@ public final class Randomly {
                 return d;
             }
         }
-        double value = getThreadRandom().get().nextDouble();
+        double value = getThreadRandom().nextDouble();
         addToCache(value);
         return value;
     }
 
     private static boolean smallBiasProbability() {
-        return getThreadRandom().get().nextInt(100) == 1;
+        return getThreadRandom().nextInt(100) == 1;
     }
 
     public static boolean getBooleanWithRatherLowProbability() {
-        return getThreadRandom().get().nextInt(10) == 1;
+        return getThreadRandom().nextInt(10) == 1;
     }
 
     public static boolean getBooleanWithSmallProbability() {
@@ -421,7 +481,7 @@ public final class Randomly {
     }
 
     public BigDecimal getRandomBigDecimal() {
-        return new BigDecimal(getThreadRandom().get().nextDouble());
+        return new BigDecimal(getThreadRandom().nextDouble());
     }
 
     public long getPositiveIntegerNotNull() {
@@ -434,7 +494,7 @@ public final class Randomly {
     }
 
     public static long getNonCachedInteger() {
-        return getThreadRandom().get().nextLong();
+        return getThreadRandom().nextLong();
     }
 
     public static long getPositiveOrZeroNonCachedInteger() {
@@ -450,16 +510,30 @@ public final class Randomly {
     }
 
     public Randomly() {
-        THREAD_RANDOM.set(new Random());
+        THREAD_RANDOM.set(new SplittableRandom());
     }
 
     public Randomly(long seed) {
         this.seed = seed;
-        THREAD_RANDOM.set(new Random(seed));
+        THREAD_RANDOM.set(new SplittableRandom(seed));
+    }
+
+    /**
+     * Derives the seed of the next database tested by a thread from the seed of the current one. Each database thus
+     * has its own seed, which is logged, and which reproduces the database when passed to --random-seed, independently
+     * of how many databases the thread tested before.
+     *
+     * @param seed
+     *            the seed of the current database
+     *
+     * @return the seed of the next database
+     */
+    public static long getNextDatabaseSeed(long seed) {
+        return new SplittableRandom(seed).split().nextLong();
     }
 
     public static double getUncachedDouble() {
-        return getThreadRandom().get().nextDouble();
+        return getThreadRandom().nextDouble();
     }
 
     public String getChar() {
@@ -480,9 +554,7 @@ public final class Randomly {
         }
     }
 
-    // see https://stackoverflow.com/a/2546158
-    // uniformity does not seem to be important for us
-    // SQLancer previously used ThreadLocalRandom.current().nextLong(lower, upper)
+    // SQLancer previously used ThreadLocalRandom.current().nextLong(lower, upper) and Random.longs(lower, upper)
     private static long getNextLong(long lower, long upper) {
         if (lower > upper) {
             throw new IllegalArgumentException(lower + " " + upper);
@@ -490,11 +562,17 @@ public final class Randomly {
         if (lower == upper) {
             return lower;
         }
-        return (long) (getThreadRandom().get().longs(lower, upper).findFirst().getAsLong());
+        return getThreadRandom().nextLong(lower, upper);
     }
 
     private static int getNextInt(int lower, int upper) {
-        return (int) getNextLong(lower, upper);
+        if (lower > upper) {
+            throw new IllegalArgumentException(lower + " " + upper);
+        }
+        if (lower == upper) {
+            return lower;
+        }
+        return getThreadRandom().nextInt(lower, upper);
     }
 
     public long getSeed() {
@@ -505,6 +583,10 @@ public final class Randomly {
         stringGenerationStrategy = options.getRandomStringGenerationStrategy();
         maxStringLength = options.getMaxStringConstantLength();
         useCaching = options.useConstantCaching();
+        if (options.getConstantCacheSize() < 0 || options.getConstantCacheSize() > LongConstantCache.MAX_CAPACITY) {
+            throw new IllegalArgumentException(String.format("--constant-cache-size must be between 0 and %d",
+                    LongConstantCache.MAX_CAPACITY));
+        }
         cacheSize = options.getConstantCacheSize();
     }
 
@@ -0,0 +1,61 @@
+package sqlancer;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Describes how the JDBC driver of a DBMS can be made to fetch the rows of a result set incrementally, rather than
+ * buffering the whole result set before returning the first row (see {@link SQLConnection#acquireStreamingStatement()}).
+ */
+public enum ResultStreaming {
+
+    /**
+     * The driver is used with its defaults, for example, since it does not buffer result sets in the first place.
+     */
+    NONE {
+        @Override
+        void prepare(Statement s, int fetchSize) {
+        }
+    },
+    /**
+     * The driver (e.g., pgjdbc) fetches the given number of rows at a time using a cursor, which requires autocommit to
+     * be disabled. Since the transaction is rolled back after the result set has been read, result sets are only
+     * streamed if the connection reports that no transaction is open (see {@link SQLConnection#isIdle()}).
+     */
+    CURSOR {
+        @Override
+        void prepare(Statement s, int fetchSize) throws SQLException {
+            s.setFetchSize(fetchSize);
+        }
+
+        @Override
+        boolean requiresTransaction() {
+            return true;
+        }
+    },
+    /**
+     * The driver (e.g., MariaDB Connector/J) fetches the given number of rows at a time.
+     */
+    FETCH_SIZE {
+        @Override
+        void prepare(Statement s, int fetchSize) throws SQLException {
+            s.setFetchSize(fetchSize);
+        }
+    },
+    /**
+     * The driver (e.g., MySQL Connector/J) streams the rows one by one if the fetch size is {@link Integer#MIN_VALUE}.
+     */
+    ROW_BY_ROW {
+        @Override
+        void prepare(Statement s, int fetchSize) throws SQLException {
+            s.setFetchSize(Integer.MIN_VALUE);
+        }
+    };
+
+    abstract void prepare(Statement s, int fetchSize) throws SQLException;
+
+    boolean requiresTransaction() {
+        return false;
+    }
+
+}
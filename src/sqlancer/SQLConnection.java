@@ -2,15 +2,80 @@ package sqlancer;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class SQLConnection implements SQLancerDBConnection {
 
+    private static final int MAX_IDLE_STATEMENTS = 4;
+    private static final int MAX_CACHED_PREPARED_STATEMENTS = 32;
+    private static final LongAdder STATEMENT_CACHE_HITS = Main.METRICS.counter("statement_cache_hits");
+    private static final LongAdder STATEMENT_CACHE_MISSES = Main.METRICS.counter("statement_cache_misses");
+
     private final Connection connection;
+    private final Deque<Statement> idleStatements = new ArrayDeque<>();
+    // in access order, so that the least recently used prepared statement is evicted first
+    private final Map<String, PreparedStatement> idlePreparedStatements = new LinkedHashMap<>(16, 0.75f, true);
+    private final ResultStreaming resultStreaming;
+    private final int fetchSize;
+    private final TransactionStateCheck transactionStateCheck;
+    // whether autocommit was disabled to stream a result set, and has to be enabled again after it was read
+    private boolean enableAutoCommit;
 
     public SQLConnection(Connection connection) {
+        this(connection, ResultStreaming.NONE, 0);
+    }
+
+    /**
+     * Creates a connection whose streaming statements (see {@link #acquireStreamingStatement()}) fetch result sets
+     * incrementally.
+     *
+     * @param connection
+     *            the JDBC connection
+     * @param resultStreaming
+     *            how the driver can be made to stream result sets
+     * @param fetchSize
+     *            the number of rows to fetch at a time, or 0 to not stream result sets
+     */
+    public SQLConnection(Connection connection, ResultStreaming resultStreaming, int fetchSize) {
+        this(connection, resultStreaming, fetchSize, c -> false);
+    }
+
+    /**
+     * Creates a connection like {@link #SQLConnection(Connection, ResultStreaming, int)}, whose driver can tell
+     * whether a transaction is open on the server.
+     *
+     * @param connection
+     *            the JDBC connection
+     * @param resultStreaming
+     *            how the driver can be made to stream result sets
+     * @param fetchSize
+     *            the number of rows to fetch at a time, or 0 to not stream result sets
+     * @param transactionStateCheck
+     *            determines whether no transaction is open on the connection
+     */
+    public SQLConnection(Connection connection, ResultStreaming resultStreaming, int fetchSize,
+            TransactionStateCheck transactionStateCheck) {
         this.connection = connection;
+        this.resultStreaming = resultStreaming;
+        this.fetchSize = fetchSize;
+        this.transactionStateCheck = transactionStateCheck;
+    }
+
+    /**
+     * Determines whether no transaction is open on the server. The autocommit flag of the driver does not reflect
+     * transactions that were started by a generated BEGIN statement, so this requires driver-specific means.
+     */
+    @FunctionalInterface
+    public interface TransactionStateCheck {
+        boolean isIdle(Connection connection) throws SQLException;
     }
 
     @Override
@@ -21,7 +86,18 @@ public class SQLConnection implements SQLancerDBConnection {
 
     @Override
     public void close() throws SQLException {
-        connection.close();
+        try {
+            for (Statement s : idleStatements) {
+                s.close();
+            }
+            for (PreparedStatement s : idlePreparedStatements.values()) {
+                s.close();
+            }
+        } finally {
+            idleStatements.clear();
+            idlePreparedStatements.clear();
+            connection.close();
+        }
     }
 
     public Statement prepareStatement(String arg) throws SQLException {
@@ -31,4 +107,154 @@ public class SQLConnection implements SQLancerDBConnection {
     public Statement createStatement() throws SQLException {
         return connection.createStatement();
     }
+
+    /**
+     * Obtains a statement from the pool of idle statements of this connection, or creates one if the pool is empty. The
+     * statement should be returned using {@link #releaseStatement(Statement)} after it has been executed successfully
+     * and its result set has been closed, or closed otherwise.
+     *
+     * @return a statement that is not used by anyone else
+     *
+     * @throws SQLException
+     *             if the statement cannot be created
+     */
+    public Statement acquireStatement() throws SQLException {
+        Statement s = idleStatements.pollFirst();
+        if (s != null) {
+            STATEMENT_CACHE_HITS.increment();
+            return s;
+        }
+        STATEMENT_CACHE_MISSES.increment();
+        return connection.createStatement();
+    }
+
+    public void releaseStatement(Statement s) throws SQLException {
+        if (s.isClosed()) {
+            return;
+        }
+        if (idleStatements.size() < MAX_IDLE_STATEMENTS) {
+            idleStatements.addFirst(s);
+        } else {
+            s.close();
+        }
+    }
+
+    /**
+     * Obtains a statement like {@link #acquireStatement()}, whose result sets are fetched incrementally, so that reading
+     * a large result set requires bounded memory. Until the result set has been read or closed, no other statement may
+     * be executed on this connection. The statement must be returned using
+     * {@link #releaseStreamingStatement(Statement, boolean)}.
+     *
+     * @return a statement that is not used by anyone else
+     *
+     * @throws SQLException
+     *             if the statement cannot be created
+     */
+    public Statement acquireStreamingStatement() throws SQLException {
+        Statement s = acquireStatement();
+        if (streamsResultSets()) {
+            try {
+                if (resultStreaming.requiresTransaction()) {
+                    if (!connection.getAutoCommit() || !isIdle()) {
+                        // the transaction, which is rolled back afterwards, would include uncommitted statements
+                        return s;
+                    }
+                    connection.setAutoCommit(false);
+                    enableAutoCommit = true;
+                }
+                resultStreaming.prepare(s, fetchSize);
+            } catch (SQLException e) {
+                releaseStreamingStatement(s, false);
+                throw e;
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Returns a statement obtained by {@link #acquireStreamingStatement()}, after its result set has been closed.
+     *
+     * @param s
+     *            the statement
+     * @param reusable
+     *            whether the statement was executed successfully, so that it can be reused, or should be closed
+     *
+     * @throws SQLException
+     *             if the transaction of the streamed result set cannot be ended
+     */
+    public void releaseStreamingStatement(Statement s, boolean reusable) throws SQLException {
+        try {
+            if (enableAutoCommit) {
+                enableAutoCommit = false;
+                // the streamed queries only read data, and the transaction might have been aborted by an error
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            if (reusable && !s.isClosed()) {
+                if (streamsResultSets()) {
+                    s.setFetchSize(0);
+                }
+                releaseStatement(s);
+            } else {
+                s.close();
+            }
+        }
+    }
+
+    /**
+     * Checks whether no transaction is open on the server.
+     *
+     * @return true if no transaction is open, or false if a transaction is open or the driver cannot tell
+     *
+     * @throws SQLException
+     *             if the state of the connection cannot be determined
+     */
+    public boolean isIdle() throws SQLException {
+        return transactionStateCheck.isIdle(connection);
+    }
+
+    private boolean streamsResultSets() {
+        return fetchSize > 0 && resultStreaming != ResultStreaming.NONE;
+    }
+
+    /**
+     * Obtains a prepared statement for the given SQL text, reusing one that was prepared before, if available. The
+     * statement should be returned using {@link #releasePreparedStatement(String, PreparedStatement)} after it has
+     * been executed successfully and its result set has been closed, or closed otherwise.
+     *
+     * @param sql
+     *            the SQL text of the statement
+     *
+     * @return a prepared statement that is not used by anyone else
+     *
+     * @throws SQLException
+     *             if the statement cannot be prepared
+     */
+    public PreparedStatement acquirePreparedStatement(String sql) throws SQLException {
+        PreparedStatement s = idlePreparedStatements.remove(sql);
+        if (s != null) {
+            STATEMENT_CACHE_HITS.increment();
+            return s;
+        }
+        STATEMENT_CACHE_MISSES.increment();
+        return connection.prepareStatement(sql);
+    }
+
+    public void releasePreparedStatement(String sql, PreparedStatement s) throws SQLException {
+        if (s.isClosed()) {
+            return;
+        }
+        s.clearParameters();
+        PreparedStatement previous = idlePreparedStatements.put(sql, s);
+        if (previous != null) {
+            previous.close();
+        }
+        if (idlePreparedStatements.size() > MAX_CACHED_PREPARED_STATEMENTS) {
+            Iterator<PreparedStatement> it = idlePreparedStatements.values().iterator();
+            PreparedStatement eldest = it.next();
+            it.remove();
+            eldest.close();
+        }
+    }
 }
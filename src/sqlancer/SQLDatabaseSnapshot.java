@@ -0,0 +1,59 @@
+package sqlancer;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A snapshot of a database accessed through JDBC. Settings such as SQLite's PRAGMAs or PostgreSQL's SET statements
+ * apply to the connection on which they were executed, rather than to the database, so they are executed again on
+ * each copy.
+ */
+public abstract class SQLDatabaseSnapshot implements DatabaseSnapshot<SQLConnection> {
+
+    private final List<String> sessionStatements;
+
+    /**
+     * Creates the snapshot.
+     *
+     * @param globalState
+     *            the state of the generated database
+     * @param sessionStatementPrefix
+     *            the prefix of the logged statements that change settings of the connection (e.g., "PRAGMA")
+     */
+    protected SQLDatabaseSnapshot(GlobalState<?, ?, ?> globalState, String sessionStatementPrefix) {
+        this.sessionStatements = globalState.getState().getStatements().stream()
+                .filter(s -> s.startsWith(sessionStatementPrefix)).collect(Collectors.toList());
+    }
+
+    /**
+     * Creates a copy of the database, like {@link #createClone(String)}, but without applying the settings of the
+     * connection to the generated database.
+     *
+     * @param cloneName
+     *            the name of the copy
+     *
+     * @return a connection to the copy
+     *
+     * @throws Exception
+     *             if the copy cannot be created
+     */
+    protected abstract SQLConnection copyDatabase(String cloneName) throws Exception;
+
+    @Override
+    public SQLConnection createClone(String cloneName) throws Exception {
+        SQLConnection con = copyDatabase(cloneName);
+        try (Statement s = con.createStatement()) {
+            for (String sessionStatement : sessionStatements) {
+                try {
+                    s.execute(sessionStatement);
+                } catch (SQLException e) {
+                    // the statement might also have failed on the generated database
+                }
+            }
+        }
+        return con;
+    }
+
+}
@@ -1,5 +1,12 @@
 package sqlancer;
 
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 import sqlancer.common.query.Query;
 import sqlancer.common.schema.AbstractSchema;
 
@@ -14,17 +21,143 @@ import sqlancer.common.schema.AbstractSchema;
 public abstract class SQLGlobalState<O extends DBMSSpecificOptions<?>, S extends AbstractSchema<?, ?>>
         extends GlobalState<O, S, SQLConnection> {
 
+    // EXPLAIN is not supported for other statements, such as BEGIN, SET, or VACUUM
+    private static final Pattern EXPLAINABLE_STATEMENT = Pattern.compile("\\s*\\(*\\s*(SELECT|INSERT|UPDATE|DELETE)\\b",
+            Pattern.CASE_INSENSITIVE);
+
     @Override
-    protected void executeEpilogue(Query<?> q, boolean success, ExecutionTimer timer) throws Exception {
-        boolean logExecutionTime = getOptions().logExecutionTime();
+    protected void executeEpilogue(Query<?> q, boolean success, long executionTimeNanos) throws Exception {
         if (success && getOptions().printSucceedingStatements()) {
             System.out.println(q.getQueryString());
         }
-        if (logExecutionTime) {
-            getLogger().writeCurrent(" -- " + timer.end().asString());
+        if (getOptions().logEachSelect() && getOptions().logExecutionTime()) {
+            getLogger().writeCurrent(" -- " + executionTimeNanos / 1_000_000 + "ms");
         }
         if (q.couldAffectSchema()) {
             updateSchema();
         }
     }
+
+    @Override
+    protected String getQueryPlan(Query<?> q) {
+        if (!EXPLAINABLE_STATEMENT.matcher(q.getQueryString()).lookingAt()) {
+            return null;
+        }
+        try {
+            return getExplainOutput(q.getUnterminatedQueryString());
+        } catch (SQLException e) {
+            return "could not obtain the query plan: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Executes the EXPLAIN statement of a query and returns its output, with one line per row and the values of a row
+     * separated by spaces.
+     *
+     * @param query
+     *            the query without a trailing semicolon
+     *
+     * @return the output of the EXPLAIN statement
+     *
+     * @throws SQLException
+     *             if the query cannot be explained
+     */
+    protected String getExplainOutput(String query) throws SQLException {
+        StringBuilder sb = new StringBuilder();
+        try (Statement s = getConnection().createStatement();
+                ResultSet rs = s.executeQuery(getExplainStatement(query))) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            while (rs.next()) {
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    if (i != 1) {
+                        sb.append(' ');
+                    }
+                    sb.append(rs.getString(i));
+                }
+                sb.append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Skips a query whose result or intermediate results are estimated to contain more rows than allowed by
+     * --max-estimated-rows, before it is executed. Queries that join several tables can otherwise take most of the
+     * testing time.
+     *
+     * @param query
+     *            the query that is about to be executed
+     *
+     * @throws IgnoreMeException
+     *             if the estimated number of rows exceeds the limit
+     */
+    public void checkEstimatedCardinality(String query) {
+        long maxEstimatedRows = getOptions().getMaxEstimatedRows();
+        if (maxEstimatedRows < 0) {
+            return;
+        }
+        String unterminatedQuery = query.endsWith(";") ? query.substring(0, query.length() - 1) : query;
+        long estimatedRows;
+        try {
+            estimatedRows = getEstimatedCardinality(unterminatedQuery);
+        } catch (SQLException e) {
+            // the query is likely to fail as well, which the oracle handles
+            return;
+        }
+        if (estimatedRows > maxEstimatedRows) {
+            Main.NR_QUERIES_SKIPPED_FOR_COST.increment();
+            if (getOptions().logEachSelect()) {
+                getLogger().writeCurrent("-- skipped, since an estimated " + estimatedRows + " rows exceed the limit");
+            }
+            throw new IgnoreMeException();
+        }
+    }
+
+    /**
+     * Estimates the largest number of rows that the query produces in any step of its execution (e.g., a join), based
+     * on the query plan of the DBMS.
+     *
+     * @param query
+     *            the query without a trailing semicolon
+     *
+     * @return the estimated number of rows, or -1 if the DBMS does not provide an estimate
+     *
+     * @throws SQLException
+     *             if the query cannot be explained
+     */
+    protected long getEstimatedCardinality(String query) throws SQLException {
+        return -1;
+    }
+
+    /**
+     * Returns the largest number that the first group of the pattern matches in a query plan.
+     *
+     * @param plan
+     *            the output of an EXPLAIN statement
+     * @param estimate
+     *            a pattern whose first group matches a row estimate, which may contain commas
+     *
+     * @return the largest estimate, or -1 if the pattern does not match
+     */
+    protected static long getMaxEstimate(String plan, Pattern estimate) {
+        long max = -1;
+        Matcher matcher = estimate.matcher(plan);
+        while (matcher.find()) {
+            double rows = Double.parseDouble(matcher.group(1).replace(",", ""));
+            max = Math.max(max, (long) Math.ceil(rows));
+        }
+        return max;
+    }
+
+    /**
+     * Returns the statement that is used to obtain the query plan of a slow statement.
+     *
+     * @param query
+     *            the statement without a trailing semicolon
+     *
+     * @return the EXPLAIN statement for the given statement
+     */
+    protected String getExplainStatement(String query) {
+        return "EXPLAIN " + query;
+    }
 }
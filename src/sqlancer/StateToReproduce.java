@@ -5,11 +5,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import sqlancer.common.log.LoggableFactory;
 import sqlancer.common.query.Query;
 
 public class StateToReproduce {
 
-    private final List<Query<?>> statements = new ArrayList<>();
+    private final StatementHistory statements = new StatementHistory();
 
     private final String databaseName;
 
@@ -63,22 +64,37 @@ public class StateToReproduce {
         if (query == null) {
             throw new IllegalArgumentException();
         }
-        statements.add(query);
+        statements.add(query.getQueryString());
     }
 
-    public List<Query<?>> getStatements() {
-        return Collections.unmodifiableList(statements);
+    /**
+     * Gets the query strings of the statements logged so far. Only the query strings are retained, which is why the
+     * statements are not returned as {@link Query} objects.
+     *
+     * @return the logged query strings
+     */
+    public List<String> getStatements() {
+        return Collections.unmodifiableList(statements.getStatements());
     }
 
     @Deprecated
     public void commentStatements() {
-        for (int i = 0; i < statements.size(); i++) {
-            Query<?> statement = statements.get(i);
-            Query<?> newQuery = databaseProvider.getLoggableFactory().commentOutQuery(statement);
-            statements.set(i, newQuery);
+        LoggableFactory loggableFactory = databaseProvider.getLoggableFactory();
+        List<String> queryStrings = statements.getStatements();
+        statements.clear();
+        for (String queryString : queryStrings) {
+            Query<?> query = loggableFactory.getQueryForStateToReproduce(queryString);
+            statements.add(loggableFactory.commentOutQuery(query).getQueryString());
         }
     }
 
+    /**
+     * Discards the logged statements, which frees the memory and temporary files used to store them.
+     */
+    public void discardStatements() {
+        statements.clear();
+    }
+
     public long getSeedValue() {
         return seedValue;
     }
@@ -98,7 +114,7 @@ public class StateToReproduce {
      */
     public class OracleRunReproductionState implements Closeable {
 
-        private final List<Query<?>> statements = new ArrayList<>();
+        private final List<String> statements = new ArrayList<>();
 
         public boolean success;
 
@@ -111,13 +127,15 @@ public class StateToReproduce {
         }
 
         public void log(String s) {
-            statements.add(databaseProvider.getLoggableFactory().getQueryForStateToReproduce(s));
+            statements.add(databaseProvider.getLoggableFactory().getQueryForStateToReproduce(s).getQueryString());
         }
 
         @Override
         public void close() {
             if (!success) {
-                StateToReproduce.this.statements.addAll(statements);
+                for (String s : statements) {
+                    StateToReproduce.this.statements.add(s);
+                }
             }
 
         }
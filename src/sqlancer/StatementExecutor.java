@@ -3,6 +3,7 @@ package sqlancer;
 import java.util.ArrayList;
 import java.util.List;
 
+import sqlancer.common.metrics.LatencyHistogram;
 import sqlancer.common.query.Query;
 
 public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends AbstractAction<G>> {
@@ -11,6 +12,7 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
     private final A[] actions;
     private final ActionMapper<G, A> mapping;
     private final AfterQueryAction queryConsumer;
+    private final LatencyHistogram[] actionLatencies;
 
     @FunctionalInterface
     public interface AfterQueryAction {
@@ -27,6 +29,10 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
         this.actions = actions.clone();
         this.mapping = mapping;
         this.queryConsumer = queryConsumer;
+        this.actionLatencies = new LatencyHistogram[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            actionLatencies[i] = Main.METRICS.histogram("action_latency", "action", actions[i].toString());
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -62,6 +68,7 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
             nrRemaining[i]--;
             @SuppressWarnings("rawtypes")
             Query query = null;
+            long startTime = System.nanoTime();
             try {
                 boolean success;
                 int nrTries = 0;
@@ -73,8 +80,9 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
             } catch (IgnoreMeException e) {
 
             }
+            actionLatencies[i].record(System.nanoTime() - startTime);
             if (query != null && query.couldAffectSchema()) {
-                globalState.updateSchema();
+                // the schema was already updated by GlobalState.executeStatement
                 queryConsumer.notify(query);
             }
             total--;
@@ -0,0 +1,154 @@
+package sqlancer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The statements logged for a database in {@link StateToReproduce}. Since a database can be used for a long time, the
+ * history is stored compactly: statements are kept as UTF-8 byte arrays (short, recurring statements such as COMMIT
+ * share a single array), and once the statements held in memory exceed a given size, they are moved to a temporary
+ * file. The file is memory-mapped when the history is read, which only happens when a bug is logged. Temporary files
+ * that have not been deleted by {@link #clear()} are deleted when the JVM exits.
+ */
+final class StatementHistory {
+
+    private static final int MAX_IN_MEMORY_BYTES = 1 << 20;
+    private static final int MAX_INTERNED_STATEMENT_LENGTH = 64;
+    private static final int MAX_INTERNED_STATEMENTS = 1024;
+    private static final Set<File> SPILL_FILES = ConcurrentHashMap.newKeySet();
+    private static boolean shutdownHookRegistered;
+
+    private final List<byte[]> inMemoryStatements = new ArrayList<>();
+    private final Map<String, byte[]> internedStatements = new HashMap<>();
+    private int inMemoryBytes;
+    private File spillFile;
+    private FileChannel spillChannel;
+    private int size;
+
+    void add(String statement) {
+        byte[] bytes = toBytes(statement);
+        inMemoryStatements.add(bytes);
+        inMemoryBytes += bytes.length;
+        size++;
+        if (inMemoryBytes > MAX_IN_MEMORY_BYTES) {
+            spill();
+        }
+    }
+
+    private byte[] toBytes(String statement) {
+        if (statement.length() > MAX_INTERNED_STATEMENT_LENGTH) {
+            return statement.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] bytes = internedStatements.get(statement);
+        if (bytes == null) {
+            bytes = statement.getBytes(StandardCharsets.UTF_8);
+            if (internedStatements.size() < MAX_INTERNED_STATEMENTS) {
+                internedStatements.put(statement, bytes);
+            }
+        }
+        return bytes;
+    }
+
+    private void spill() {
+        try {
+            if (spillChannel == null) {
+                registerShutdownHook();
+                spillFile = File.createTempFile("sqlancer-statements", ".bin");
+                SPILL_FILES.add(spillFile);
+                spillChannel = FileChannel.open(spillFile.toPath(), StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(inMemoryBytes + Integer.BYTES * inMemoryStatements.size());
+            for (byte[] statement : inMemoryStatements) {
+                buffer.putInt(statement.length);
+                buffer.put(statement);
+            }
+            // the cast avoids calling ByteBuffer.flip(), which does not exist in Java 8
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining()) {
+                spillChannel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        inMemoryStatements.clear();
+        inMemoryBytes = 0;
+    }
+
+    private static synchronized void registerShutdownHook() {
+        if (shutdownHookRegistered) {
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(StatementHistory::deleteSpillFiles));
+        shutdownHookRegistered = true;
+    }
+
+    private static void deleteSpillFiles() {
+        for (File file : SPILL_FILES) {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    List<String> getStatements() {
+        List<String> statements = new ArrayList<>(size);
+        if (spillChannel != null) {
+            try (FileChannel channel = FileChannel.open(spillFile.toPath(), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (buffer.hasRemaining()) {
+                    byte[] statement = new byte[buffer.getInt()];
+                    buffer.get(statement);
+                    statements.add(new String(statement, StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+        for (byte[] statement : inMemoryStatements) {
+            statements.add(new String(statement, StandardCharsets.UTF_8));
+        }
+        return statements;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        inMemoryStatements.clear();
+        inMemoryBytes = 0;
+        size = 0;
+        if (spillChannel != null) {
+            try {
+                spillChannel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            try {
+                Files.deleteIfExists(spillFile.toPath());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            SPILL_FILES.remove(spillFile);
+            spillChannel = null;
+            spillFile = null;
+        }
+    }
+
+}
@@ -0,0 +1,172 @@
+package sqlancer;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import sqlancer.Main.StateLogger;
+
+/**
+ * Cancels statements that exceed their timeout (see --statement-timeout-seconds), and reports statements that are still
+ * running after --hang-threshold-seconds as potential hangs. The timeouts are enforced by cancelling the statement from
+ * a separate thread, rather than by {@link Statement#setQueryTimeout(int)}, which some drivers do not support or, like
+ * the SQLite driver, only use as a timeout for acquiring locks.
+ */
+public final class StatementWatchdog {
+
+    private static final long CHECK_INTERVAL_MILLIS = 250;
+    private static final LongAdder NR_TIMED_OUT_STATEMENTS = Main.METRICS.counter("timed_out_statements");
+    private static final LongAdder NR_HANGING_STATEMENTS = Main.METRICS.counter("hanging_statements");
+    private static final Set<WatchedStatement> RUNNING_STATEMENTS = ConcurrentHashMap.newKeySet();
+    private static volatile ScheduledExecutorService scheduler;
+
+    private StatementWatchdog() {
+    }
+
+    /**
+     * A statement that is being executed, which is no longer watched after {@link #close()} has been called.
+     */
+    public static final class WatchedStatement implements AutoCloseable {
+
+        private final Statement statement;
+        private final String sql;
+        private final Thread thread;
+        private final StateLogger logger;
+        private final long startNanos = System.nanoTime();
+        private final long timeoutNanos;
+        private final long hangThresholdNanos;
+        // guarded by this, so that a statement is not cancelled after it has been executed and is reused
+        private boolean finished;
+        private boolean cancelled;
+        private boolean hanging;
+
+        WatchedStatement(Statement statement, String sql, long timeoutNanos, long hangThresholdNanos,
+                StateLogger logger) {
+            this.statement = statement;
+            this.sql = sql;
+            this.thread = Thread.currentThread();
+            this.timeoutNanos = timeoutNanos;
+            this.hangThresholdNanos = hangThresholdNanos;
+            this.logger = logger;
+        }
+
+        private synchronized void check(long nowNanos) {
+            if (finished) {
+                return;
+            }
+            long executionTimeNanos = nowNanos - startNanos;
+            if (!hanging && hangThresholdNanos > 0 && executionTimeNanos >= hangThresholdNanos) {
+                hanging = true;
+                NR_HANGING_STATEMENTS.increment();
+                reportHang(executionTimeNanos);
+                cancel();
+            } else if (!cancelled && timeoutNanos > 0 && executionTimeNanos >= timeoutNanos) {
+                NR_TIMED_OUT_STATEMENTS.increment();
+                cancel();
+            }
+        }
+
+        private void reportHang(long executionTimeNanos) {
+            System.err.println(String.format("%s: a statement has been running for %ds and might hang",
+                    thread.getName(), TimeUnit.NANOSECONDS.toSeconds(executionTimeNanos)));
+            if (logger != null) {
+                logger.logHangingStatement(sql, executionTimeNanos, thread.getName(), thread.getStackTrace());
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                // for example, the DuckDB driver does not support cancelling statements
+            }
+        }
+
+        /**
+         * Checks whether the statement failed since it was cancelled.
+         *
+         * @return true if the statement was cancelled since it exceeded its timeout, in which case its error can be
+         *         ignored
+         *
+         * @throws AssertionError
+         *             if the statement was reported as a potential hang
+         */
+        public synchronized boolean wasCancelled() {
+            if (hanging) {
+                throw new AssertionError(String.format("the statement was still running after %ds: %s",
+                        TimeUnit.NANOSECONDS.toSeconds(hangThresholdNanos), sql));
+            }
+            return cancelled;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                finished = true;
+            }
+            RUNNING_STATEMENTS.remove(this);
+        }
+
+    }
+
+    /**
+     * Watches a statement that is about to be executed by the current thread.
+     *
+     * @param statement
+     *            the statement, which is cancelled if it exceeds its timeout
+     * @param sql
+     *            the SQL text of the statement, which is logged if the statement might hang
+     * @param globalState
+     *            the global state, which determines the timeouts
+     *
+     * @return the watched statement, which must be closed after the statement has been executed
+     */
+    public static WatchedStatement watch(Statement statement, String sql, GlobalState<?, ?, ?> globalState) {
+        int hangThresholdSeconds = globalState.getOptions().getHangThresholdSeconds();
+        return watch(statement, sql, TimeUnit.SECONDS.toNanos(globalState.getStatementTimeoutSeconds()),
+                hangThresholdSeconds == -1 ? 0 : TimeUnit.SECONDS.toNanos(hangThresholdSeconds),
+                globalState.getLogger());
+    }
+
+    static WatchedStatement watch(Statement statement, String sql, long timeoutNanos, long hangThresholdNanos,
+            StateLogger logger) {
+        WatchedStatement watchedStatement = new WatchedStatement(statement, sql, timeoutNanos, hangThresholdNanos,
+                logger);
+        if (timeoutNanos > 0 || hangThresholdNanos > 0) {
+            if (scheduler == null) {
+                startScheduler();
+            }
+            RUNNING_STATEMENTS.add(watchedStatement);
+        }
+        return watchedStatement;
+    }
+
+    private static synchronized void startScheduler() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "statement-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            long nowNanos = System.nanoTime();
+            for (WatchedStatement watchedStatement : RUNNING_STATEMENTS) {
+                try {
+                    watchedStatement.check(nowNanos);
+                } catch (Throwable t) {
+                    // an exception would cancel the periodic execution
+                    t.printStackTrace();
+                }
+            }
+        }, CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,68 @@
+package sqlancer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of up to a fixed number of string constants, used by {@link Randomly} to reuse previously generated strings.
+ * Unlike the caches for numbers, the string cache keeps adapting once it is full: a new string then replaces a randomly
+ * chosen cached one, so that the strings derived from recently generated ones (see
+ * {@link Randomly.StringGenerationStrategy#transformCachedString(Randomly, String)}) can also be reused.
+ */
+final class StringConstantCache {
+
+    // grows on demand, since most caches (one per generated database) never fill up
+    private final List<String> values = new ArrayList<>();
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final int capacity;
+
+    StringConstantCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException(String.valueOf(capacity));
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the value to the cache, unless it is already contained. If the cache is full, the value replaces the value
+     * at the given position.
+     *
+     * @param value
+     *            the value to be cached
+     * @param replacementPosition
+     *            a random position in [0, capacity), which is only used if the cache is full
+     */
+    void add(String value, int replacementPosition) {
+        if (capacity == 0 || positions.containsKey(value)) {
+            return;
+        }
+        int position;
+        if (values.size() < capacity) {
+            position = values.size();
+            values.add(value);
+        } else {
+            position = replacementPosition;
+            positions.remove(values.set(position, value));
+        }
+        positions.put(value, position);
+    }
+
+    boolean isFull() {
+        return values.size() == capacity;
+    }
+
+    String get(int i) {
+        return values.get(i);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+}
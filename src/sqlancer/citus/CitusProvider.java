@@ -1,5 +1,6 @@
 package sqlancer.citus;
 
+import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -8,11 +9,21 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import sqlancer.AbstractAction;
+import sqlancer.DatabaseSnapshot;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
+import sqlancer.ResultStreaming;
 import sqlancer.SQLConnection;
 import sqlancer.StatementExecutor;
 import sqlancer.citus.gen.CitusAlterTableGenerator;
@@ -51,6 +62,17 @@ import sqlancer.postgres.gen.PostgresVacuumGenerator;
 
 public class CitusProvider extends PostgresProvider {
 
+    private static final int WORKER_CONNECTION_VALIDATION_TIMEOUT_SECONDS = 1;
+    // the worker nodes of a database are prepared concurrently, rather than one after the other
+    private static final ExecutorService WORKER_PREPARATION_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "citus-worker-preparation");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final ConcurrentMap<String, Queue<Connection>> IDLE_WORKER_CONNECTIONS = new ConcurrentHashMap<>();
+    // serializes the changes to the node metadata of the coordinator
+    private static final Object COORDINATOR_METADATA_LOCK = new Object();
+
     @SuppressWarnings("unchecked")
     public CitusProvider() {
         super((Class<PostgresGlobalState>) (Object) CitusGlobalState.class,
@@ -298,6 +320,12 @@ public class CitusProvider extends PostgresProvider {
         }
     }
 
+    @Override
+    public DatabaseSnapshot<SQLConnection> createSnapshot(PostgresGlobalState globalState) {
+        // the shards of distributed tables are stored on the worker nodes, which a template does not copy
+        return null;
+    }
+
     @Override
     protected TestOracle getTestOracle(PostgresGlobalState globalState) throws SQLException {
         List<TestOracle> oracles = ((CitusOptions) globalState.getDmbsSpecificOptions()).citusOracle.stream().map(o -> {
@@ -335,40 +363,99 @@ public class CitusProvider extends PostgresProvider {
 
     private void prepareCitusWorkerNodes(PostgresGlobalState globalState, List<CitusWorkerNode> citusWorkerNodes,
             int databaseIndex, String entryDatabaseName) throws SQLException {
+        String user = username;
+        String pass = password;
+        String dropDatabaseCommand = "DROP DATABASE IF EXISTS " + databaseName;
+        String createCommand = createDatabaseCommand;
+        List<Future<?>> preparations = new ArrayList<>();
         for (CitusWorkerNode w : citusWorkerNodes) {
             // connect to worker node, entry database
             int hostIndex = entryURL.indexOf(host);
             String preHost = entryURL.substring(0, hostIndex);
             String postHost = entryURL.substring(databaseIndex - 1);
             String entryWorkerURL = preHost + w.getHost() + ":" + w.getPort() + postHost;
-            globalState.getState().logStatement("\\q");
-            globalState.getState().logStatement(entryWorkerURL);
-            SQLConnection con = new SQLConnection(
-                    DriverManager.getConnection("jdbc:" + entryWorkerURL, username, password));
-
-            // create test database at worker node
-            globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
-            globalState.getState().logStatement(createDatabaseCommand);
-            try (Statement s = con.createStatement()) {
-                s.execute("DROP DATABASE IF EXISTS " + databaseName);
-            }
-            try (Statement s = con.createStatement()) {
-                s.execute(createDatabaseCommand);
-            }
-            con.close();
-
             // connect to worker node, test database
             int databaseIndexWorker = entryWorkerURL.indexOf(entryPath) + 1;
             String preDatabaseNameWorker = entryWorkerURL.substring(0, databaseIndexWorker);
             String postDatabaseNameWorker = entryWorkerURL.substring(databaseIndexWorker + entryDatabaseName.length());
             String testWorkerURL = preDatabaseNameWorker + databaseName + postDatabaseNameWorker;
+
+            // the nodes are prepared concurrently, but logged as if they were prepared one after the other
+            globalState.getState().logStatement("\\q");
+            globalState.getState().logStatement(entryWorkerURL);
+            globalState.getState().logStatement(dropDatabaseCommand);
+            globalState.getState().logStatement(createCommand);
             globalState.getState().logStatement(String.format("\\c %s;", databaseName));
-            con = new SQLConnection(DriverManager.getConnection("jdbc:" + testWorkerURL, username, password));
+            globalState.getState().logStatement("CREATE EXTENSION citus;");
+            preparations.add(WORKER_PREPARATION_EXECUTOR.submit(() -> {
+                // create test database at worker node
+                Connection con = getWorkerConnection(entryWorkerURL, user, pass);
+                try (Statement s = con.createStatement()) {
+                    s.execute(dropDatabaseCommand);
+                    s.execute(createCommand);
+                } catch (SQLException e) {
+                    con.close();
+                    throw e;
+                }
+                releaseWorkerConnection(entryWorkerURL, user, con);
+
+                // add citus extension to worker node, test database
+                try (Connection testCon = DriverManager.getConnection("jdbc:" + testWorkerURL, user, pass);
+                        Statement s = testCon.createStatement()) {
+                    s.execute("CREATE EXTENSION citus;");
+                }
+                return null;
+            }));
+        }
+        awaitAll(preparations);
+    }
+
+    private static void awaitAll(List<Future<?>> futures) throws SQLException {
+        Throwable failure = null;
+        // all futures are awaited, so that no node is still being prepared when the database is used
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure instanceof SQLException) {
+            throw (SQLException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new SQLException(failure);
+        }
+    }
 
-            // add citus extension to worker node, test database
-            addCitusExtension(globalState, con);
+    /**
+     * Gets an idle connection to the entry database of a worker node, which is only used to drop and create test
+     * databases, so that it can be reused for the databases of all threads.
+     */
+    private static Connection getWorkerConnection(String entryWorkerURL, String user, String pass)
+            throws SQLException {
+        Queue<Connection> idleConnections = IDLE_WORKER_CONNECTIONS.computeIfAbsent(user + "@" + entryWorkerURL,
+                k -> new ConcurrentLinkedQueue<>());
+        Connection con;
+        while ((con = idleConnections.poll()) != null) {
+            if (con.isValid(WORKER_CONNECTION_VALIDATION_TIMEOUT_SECONDS)) {
+                return con;
+            }
             con.close();
         }
+        return DriverManager.getConnection("jdbc:" + entryWorkerURL, user, pass);
+    }
+
+    private static void releaseWorkerConnection(String entryWorkerURL, String user, Connection con) {
+        IDLE_WORKER_CONNECTIONS.get(user + "@" + entryWorkerURL).add(con);
     }
 
     private void addCitusWorkerNodes(PostgresGlobalState globalState, SQLConnection con,
@@ -385,40 +472,41 @@ public class CitusProvider extends PostgresProvider {
     @SuppressWarnings("deprecation")
     @Override
     public SQLConnection createDatabase(PostgresGlobalState globalState) throws SQLException {
-        synchronized (CitusProvider.class) {
-            // returns connection to coordinator node, test database
-            SQLConnection con = super.createDatabase(globalState);
-            String entryDatabaseName = entryPath.substring(1);
-            int databaseIndex = entryURL.indexOf(entryPath) + 1;
-            // add citus extension to coordinator node, test database
-            addCitusExtension(globalState, con);
-            con.close();
-
-            // reconnect to coordinator node, entry database
-            globalState.getState().logStatement(String.format("\\c %s;", entryDatabaseName));
-            con = new SQLConnection(DriverManager.getConnection("jdbc:" + entryURL, username, password));
-            // read info about worker nodes
-            List<CitusWorkerNode> citusWorkerNodes = readCitusWorkerNodes(globalState, con);
-            con.close();
-
-            // prepare worker nodes for test database
-            prepareCitusWorkerNodes(globalState, citusWorkerNodes, databaseIndex, entryDatabaseName);
-
-            // reconnect to coordinator node, test database
-            globalState.getState().logStatement("\\q");
-            globalState.getState().logStatement(testURL);
-            con = new SQLConnection(DriverManager.getConnection("jdbc:" + testURL, username, password));
-            // add worker nodes to coordinator node for test database
+        // returns connection to coordinator node, test database
+        SQLConnection con = super.createDatabase(globalState);
+        String entryDatabaseName = entryPath.substring(1);
+        int databaseIndex = entryURL.indexOf(entryPath) + 1;
+        // add citus extension to coordinator node, test database
+        addCitusExtension(globalState, con);
+        con.close();
+
+        // reconnect to coordinator node, entry database
+        globalState.getState().logStatement(String.format("\\c %s;", entryDatabaseName));
+        con = new SQLConnection(DriverManager.getConnection("jdbc:" + entryURL, username, password));
+        // read info about worker nodes
+        List<CitusWorkerNode> citusWorkerNodes = readCitusWorkerNodes(globalState, con);
+        con.close();
+
+        // prepare worker nodes for test database
+        prepareCitusWorkerNodes(globalState, citusWorkerNodes, databaseIndex, entryDatabaseName);
+
+        // reconnect to coordinator node, test database
+        globalState.getState().logStatement("\\q");
+        globalState.getState().logStatement(testURL);
+        con = new SQLConnection(DriverManager.getConnection("jdbc:" + testURL, username, password));
+        // add worker nodes to coordinator node for test database
+        synchronized (COORDINATOR_METADATA_LOCK) {
             addCitusWorkerNodes(globalState, con, citusWorkerNodes);
-            con.close();
-
-            // reconnect to coordinator node, test database
-            con = new SQLConnection(DriverManager.getConnection("jdbc:" + testURL, username, password));
-            ((CitusGlobalState) globalState)
-                    .setRepartition(((CitusOptions) globalState.getDmbsSpecificOptions()).repartition);
-            globalState.getState().commentStatements();
-            return con;
         }
+        con.close();
+
+        // reconnect to coordinator node, test database
+        con = new SQLConnection(DriverManager.getConnection("jdbc:" + testURL, username, password),
+                ResultStreaming.CURSOR, globalState.getOptions().getFetchSize(), PostgresProvider::isIdle);
+        ((CitusGlobalState) globalState)
+                .setRepartition(((CitusOptions) globalState.getDmbsSpecificOptions()).repartition);
+        globalState.getState().commentStatements();
+        return con;
     }
 
     @Override
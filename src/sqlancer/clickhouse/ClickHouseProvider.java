@@ -2,11 +2,14 @@ package sqlancer.clickhouse;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import sqlancer.AbstractAction;
+import sqlancer.DatabasePool;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
@@ -22,6 +25,9 @@ import sqlancer.common.query.SQLQueryProvider;
 
 public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState, ClickHouseOptions> {
 
+    private static final long DATABASE_READINESS_TIMEOUT_SECONDS = 30;
+    private static final long MAX_POLL_INTERVAL_MILLIS = 200;
+
     public ClickHouseProvider() {
         super(ClickHouseGlobalState.class, ClickHouseOptions.class);
     }
@@ -104,30 +110,59 @@ public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState
     public SQLConnection createDatabase(ClickHouseGlobalState globalState) throws SQLException {
         ClickHouseOptions clickHouseOptions = globalState.getDmbsSpecificOptions();
         globalState.setClickHouseOptions(clickHouseOptions);
-        String url = "jdbc:clickhouse://localhost:8123/default";
+        String url = "jdbc:clickhouse://localhost:8123/";
+        String username = globalState.getOptions().getUserName();
+        String password = globalState.getOptions().getPassword();
+        Connection con = DatabasePool.getDatabase(globalState, databaseName -> {
+            try (Connection c = DriverManager.getConnection(url + "default", username, password)) {
+                try (Statement s = c.createStatement()) {
+                    s.execute("DROP DATABASE IF EXISTS " + databaseName);
+                }
+                waitForDatabase(c, databaseName, false);
+                try (Statement s = c.createStatement()) {
+                    s.execute("CREATE DATABASE IF NOT EXISTS " + databaseName);
+                }
+                waitForDatabase(c, databaseName, true);
+            }
+            return DriverManager.getConnection(url + databaseName, username, password);
+        });
         String databaseName = globalState.getDatabaseName();
-        Connection con = DriverManager.getConnection(url, globalState.getOptions().getUserName(),
-                globalState.getOptions().getPassword());
-        String dropDatabaseCommand = "DROP DATABASE IF EXISTS " + databaseName;
-        globalState.getState().logStatement(dropDatabaseCommand);
-        String createDatabaseCommand = "CREATE DATABASE IF NOT EXISTS " + databaseName;
-        globalState.getState().logStatement(createDatabaseCommand);
-        try (Statement s = con.createStatement()) {
-            s.execute(dropDatabaseCommand);
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
+        globalState.getState().logStatement("CREATE DATABASE IF NOT EXISTS " + databaseName);
+        return new SQLConnection(con);
+    }
+
+    /**
+     * Waits until a dropped database has disappeared from, or a created database has appeared in, system.databases,
+     * since ClickHouse might apply DROP DATABASE and CREATE DATABASE only after the statement has returned. The catalog
+     * is polled with an exponentially increasing interval, so that a database that is ready right away is used right
+     * away.
+     */
+    private static void waitForDatabase(Connection con, String databaseName, boolean exists) throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DATABASE_READINESS_TIMEOUT_SECONDS);
+        long intervalMillis = 1;
         try (Statement s = con.createStatement()) {
-            s.execute(createDatabaseCommand);
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            while (true) {
+                try (ResultSet rs = s
+                        .executeQuery("SELECT count() FROM system.databases WHERE name = '" + databaseName + "'")) {
+                    rs.next();
+                    if ((rs.getLong(1) != 0) == exists) {
+                        return;
+                    }
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    throw new SQLException(String.format("database %s was not %s after %ds", databaseName,
+                            exists ? "created" : "dropped", DATABASE_READINESS_TIMEOUT_SECONDS));
+                }
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException(e);
+                }
+                intervalMillis = Math.min(intervalMillis * 2, MAX_POLL_INTERVAL_MILLIS);
+            }
         }
-        con.close();
-        con = DriverManager.getConnection("jdbc:clickhouse://localhost:8123/" + databaseName,
-                globalState.getOptions().getUserName(), globalState.getOptions().getPassword());
-        return new SQLConnection(con);
     }
 
     @Override
@@ -18,6 +18,7 @@ import sqlancer.clickhouse.ast.ClickHouseUnaryPostfixOperation;
 import sqlancer.clickhouse.ast.ClickHouseUnaryPrefixOperation;
 import sqlancer.clickhouse.gen.ClickHouseCommon;
 import sqlancer.clickhouse.gen.ClickHouseExpressionGenerator;
+import sqlancer.common.query.ColumnarResult;
 
 public class ClickHouseTLPAggregateOracle extends ClickHouseTLPBase {
 
@@ -65,22 +66,20 @@ public class ClickHouseTLPAggregateOracle extends ClickHouseTLPBase {
                 + ClickHouseVisitor.asString(middleSelect) + " UNION ALL " + ClickHouseVisitor.asString(rightSelect);
         metamorphicText += ")";
         metamorphicText += " SETTINGS aggregate_functions_null_for_empty = 1";
-        List<String> firstResult = ComparatorHelper.getResultSetFirstColumnAsString(originalQuery, errors, state);
+        ColumnarResult firstResult = ComparatorHelper.getColumnarResult(originalQuery, errors, state);
 
-        List<String> secondResult = ComparatorHelper.getResultSetFirstColumnAsString(metamorphicText, errors, state);
+        ColumnarResult secondResult = ComparatorHelper.getColumnarResult(metamorphicText, errors, state);
 
         state.getState().getLocalState()
                 .log("--" + originalQuery + "\n--" + metamorphicText + "\n-- " + firstResult + "\n-- " + secondResult
-                        + "\n--first size " + firstResult.size() + "\n--second size " + secondResult.size());
+                        + "\n--first size " + firstResult.getNrRows() + "\n--second size " + secondResult.getNrRows());
 
-        if (firstResult.size() != secondResult.size()) {
+        if (firstResult.getNrRows() != secondResult.getNrRows()) {
             throw new AssertionError();
         } else if (firstResult.isEmpty()) {
             return;
-        } else if (firstResult.size() == 1) {
-            if (firstResult.get(0).equals(secondResult.get(0))) {
-                return;
-            } else if (!ComparatorHelper.isEqualDouble(firstResult.get(0), secondResult.get(0))) {
+        } else if (firstResult.getNrRows() == 1) {
+            if (!firstResult.rowsEqual(secondResult)) {
                 throw new AssertionError();
             }
         } else {
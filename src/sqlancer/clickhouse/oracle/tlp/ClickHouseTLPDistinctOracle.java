@@ -8,6 +8,7 @@ import sqlancer.ComparatorHelper;
 import sqlancer.clickhouse.ClickHouseProvider;
 import sqlancer.clickhouse.ClickHouseVisitor;
 import sqlancer.clickhouse.ast.ClickHouseSelect;
+import sqlancer.common.query.MultisetHash;
 
 public class ClickHouseTLPDistinctOracle extends ClickHouseTLPBase {
 
@@ -22,7 +23,7 @@ public class ClickHouseTLPDistinctOracle extends ClickHouseTLPBase {
         select.setWhereClause(null);
         String originalQueryString = ClickHouseVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
 
         select.setWhereClause(predicate);
         String firstQueryString = ClickHouseVisitor.asString(select);
@@ -31,10 +32,10 @@ public class ClickHouseTLPDistinctOracle extends ClickHouseTLPBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = ClickHouseVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
                 secondQueryString, thirdQueryString, combinedString, false, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 
 }
@@ -11,6 +11,7 @@ import sqlancer.clickhouse.ClickHouseProvider;
 import sqlancer.clickhouse.ClickHouseVisitor;
 import sqlancer.clickhouse.ast.ClickHouseColumnReference;
 import sqlancer.clickhouse.ast.ClickHouseExpression;
+import sqlancer.common.query.MultisetHash;
 
 public class ClickHouseTLPGroupByOracle extends ClickHouseTLPBase {
 
@@ -25,7 +26,7 @@ public class ClickHouseTLPGroupByOracle extends ClickHouseTLPBase {
         select.setWhereClause(null);
         String originalQueryString = ClickHouseVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
 
         select.setWhereClause(predicate);
         String firstQueryString = ClickHouseVisitor.asString(select);
@@ -34,10 +35,10 @@ public class ClickHouseTLPGroupByOracle extends ClickHouseTLPBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = ClickHouseVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
                 secondQueryString, thirdQueryString, combinedString, false, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 
     @Override
@@ -9,6 +9,7 @@ import sqlancer.Randomly;
 import sqlancer.clickhouse.ClickHouseErrors;
 import sqlancer.clickhouse.ClickHouseProvider;
 import sqlancer.clickhouse.ClickHouseVisitor;
+import sqlancer.common.query.MultisetHash;
 
 public class ClickHouseTLPWhereOracle extends ClickHouseTLPBase {
 
@@ -25,7 +26,7 @@ public class ClickHouseTLPWhereOracle extends ClickHouseTLPBase {
             select.setOrderByExpressions(gen.generateOrderBys());
         }
         String originalQueryString = ClickHouseVisitor.asString(select);
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
 
         boolean orderBy = Randomly.getBooleanWithRatherLowProbability();
         if (orderBy) {
@@ -38,9 +39,9 @@ public class ClickHouseTLPWhereOracle extends ClickHouseTLPBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = ClickHouseVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
                 thirdQueryString, combinedString, !orderBy, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 }
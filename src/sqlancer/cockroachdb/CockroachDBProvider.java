@@ -6,12 +6,14 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import sqlancer.IgnoreMeException;
 import sqlancer.Main.QueryManager;
 import sqlancer.MainOptions;
 import sqlancer.Randomly;
+import sqlancer.ResultStreaming;
 import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
@@ -33,6 +35,7 @@ import sqlancer.cockroachdb.gen.CockroachDBViewGenerator;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
+import sqlancer.postgres.PostgresProvider;
 
 public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalState, CockroachDBOptions> {
 
@@ -112,11 +115,19 @@ public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalSta
 
     public static class CockroachDBGlobalState extends SQLGlobalState<CockroachDBOptions, CockroachDBSchema> {
 
+        // for example, "estimated row count: 1,000 (missing stats)"
+        private static final Pattern ESTIMATED_ROWS = Pattern.compile("estimated row count: ([\\d,]+)");
+
         @Override
         protected CockroachDBSchema readSchema() throws SQLException {
             return CockroachDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        protected long getEstimatedCardinality(String query) throws SQLException {
+            return getMaxEstimate(getExplainOutput(query), ESTIMATED_ROWS);
+        }
+
     }
 
     @Override
@@ -248,31 +259,34 @@ public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalSta
 
     @Override
     public SQLConnection createDatabase(CockroachDBGlobalState globalState) throws SQLException {
+        String url = "jdbc:postgresql://localhost:26257/";
+        String username = globalState.getOptions().getUserName();
+        String password = globalState.getOptions().getPassword();
+        Connection con = DatabasePool.getDatabase(globalState, databaseName -> {
+            try (Connection c = DriverManager.getConnection(url + "test", username, password)) {
+                try (Statement s = c.createStatement()) {
+                    s.execute("DROP DATABASE IF EXISTS " + databaseName);
+                } catch (SQLException e) {
+                    if (e.getMessage().contains("ERROR: invalid interleave backreference")) {
+                        throw new IgnoreMeException(); // TODO: investigate
+                    } else {
+                        throw e;
+                    }
+                }
+                try (Statement s = c.createStatement()) {
+                    s.execute("CREATE DATABASE " + databaseName);
+                }
+            }
+            return DriverManager.getConnection(url + databaseName, username, password);
+        });
         String databaseName = globalState.getDatabaseName();
-        String url = "jdbc:postgresql://localhost:26257/test";
-        Connection con = DriverManager.getConnection(url, globalState.getOptions().getUserName(),
-                globalState.getOptions().getPassword());
         globalState.getState().logStatement("USE test");
         globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName + " CASCADE");
-        String createDatabaseCommand = "CREATE DATABASE " + databaseName;
-        globalState.getState().logStatement(createDatabaseCommand);
+        globalState.getState().logStatement("CREATE DATABASE " + databaseName);
         globalState.getState().logStatement("USE " + databaseName);
-        try (Statement s = con.createStatement()) {
-            s.execute("DROP DATABASE IF EXISTS " + databaseName);
-        } catch (SQLException e) {
-            if (e.getMessage().contains("ERROR: invalid interleave backreference")) {
-                throw new IgnoreMeException(); // TODO: investigate
-            } else {
-                throw e;
-            }
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute(createDatabaseCommand);
-        }
-        con.close();
-        con = DriverManager.getConnection("jdbc:postgresql://localhost:26257/" + databaseName,
-                globalState.getOptions().getUserName(), globalState.getOptions().getPassword());
-        return new SQLConnection(con);
+        // CockroachDB is accessed using pgjdbc
+        return new SQLConnection(con, ResultStreaming.CURSOR, globalState.getOptions().getFetchSize(),
+                PostgresProvider::isIdle);
     }
 
     @Override
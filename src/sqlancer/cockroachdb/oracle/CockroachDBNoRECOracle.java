@@ -112,6 +112,7 @@ public class CockroachDBNoRECOracle extends NoRECBase<CockroachDBGlobalState> im
             state.getLogger().writeCurrent(s);
         }
         this.optimizedQueryString = s;
+        state.checkEstimatedCardinality(s);
         SQLQueryAdapter q = new SQLQueryAdapter(s, errors);
         return getCount(state, q);
     }
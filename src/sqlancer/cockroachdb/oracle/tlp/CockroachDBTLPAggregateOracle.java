@@ -8,7 +8,6 @@ import java.util.stream.Collectors;
 
 import org.postgresql.util.PSQLException;
 
-import sqlancer.ComparatorHelper;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.cockroachdb.CockroachDBCommon;
@@ -31,6 +30,7 @@ import sqlancer.cockroachdb.ast.CockroachDBUnaryPostfixOperation.CockroachDBUnar
 import sqlancer.cockroachdb.gen.CockroachDBExpressionGenerator;
 import sqlancer.cockroachdb.oracle.CockroachDBNoRECOracle;
 import sqlancer.common.oracle.TestOracle;
+import sqlancer.common.query.ColumnarResult;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
@@ -40,8 +40,8 @@ public class CockroachDBTLPAggregateOracle implements TestOracle {
     private final CockroachDBGlobalState state;
     private final ExpectedErrors errors = new ExpectedErrors();
     private CockroachDBExpressionGenerator gen;
-    private String firstResult;
-    private String secondResult;
+    private ColumnarResult firstResult;
+    private ColumnarResult secondResult;
     private String originalQuery;
     private String metamorphicQuery;
 
@@ -85,10 +85,8 @@ public class CockroachDBTLPAggregateOracle implements TestOracle {
 
         state.getState().getLocalState().log(
                 "--" + originalQuery + ";\n--" + metamorphicQuery + "\n-- " + firstResult + "\n-- " + secondResult);
-        if (firstResult == null && secondResult != null
-                || firstResult != null && (!firstResult.contentEquals(secondResult)
-                        && !ComparatorHelper.isEqualDouble(firstResult, secondResult))) {
-            if (secondResult.contains("Inf")) {
+        if (!firstResult.rowsEqual(secondResult)) {
+            if (secondResult.toString().contains("Inf")) {
                 throw new IgnoreMeException(); // FIXME: average computation
             }
             throw new AssertionError();
@@ -114,22 +112,18 @@ public class CockroachDBTLPAggregateOracle implements TestOracle {
         return metamorphicQuery;
     }
 
-    private String getAggregateResult(String queryString) throws SQLException {
-        String resultString;
+    private ColumnarResult getAggregateResult(String queryString) throws SQLException {
+        ColumnarResult aggregateResult;
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors);
         try (SQLancerResultSet result = q.executeAndGet(state)) {
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            if (!result.next()) {
-                resultString = null;
-            } else {
-                resultString = result.getString(1);
-            }
+            aggregateResult = ColumnarResult.fetch(result);
         } catch (PSQLException e) {
             throw new AssertionError(queryString, e);
         }
-        return resultString;
+        return aggregateResult;
     }
 
     private List<CockroachDBExpression> mapped(CockroachDBAggregate aggregate) {
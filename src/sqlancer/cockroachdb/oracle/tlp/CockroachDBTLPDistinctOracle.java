@@ -12,6 +12,7 @@ import sqlancer.cockroachdb.ast.CockroachDBExpression;
 import sqlancer.cockroachdb.ast.CockroachDBNotOperation;
 import sqlancer.cockroachdb.ast.CockroachDBUnaryPostfixOperation;
 import sqlancer.cockroachdb.ast.CockroachDBUnaryPostfixOperation.CockroachDBUnaryPostfixOperator;
+import sqlancer.common.query.MultisetHash;
 
 public class CockroachDBTLPDistinctOracle extends CockroachDBTLPBase {
 
@@ -26,7 +27,7 @@ public class CockroachDBTLPDistinctOracle extends CockroachDBTLPBase {
         select.setDistinct(true);
         String originalQueryString = CockroachDBVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
         select.setDistinct(false);
         CockroachDBExpression predicate = gen.generateExpression(CockroachDBDataType.BOOL.get());
         select.setWhereClause(predicate);
@@ -36,9 +37,9 @@ public class CockroachDBTLPDistinctOracle extends CockroachDBTLPBase {
         select.setWhereClause(new CockroachDBUnaryPostfixOperation(predicate, CockroachDBUnaryPostfixOperator.IS_NULL));
         String thirdQueryString = CockroachDBVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
                 secondQueryString, thirdQueryString, combinedString, true, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 }
@@ -15,6 +15,7 @@ import sqlancer.cockroachdb.ast.CockroachDBExpression;
 import sqlancer.cockroachdb.ast.CockroachDBNotOperation;
 import sqlancer.cockroachdb.ast.CockroachDBUnaryPostfixOperation;
 import sqlancer.cockroachdb.ast.CockroachDBUnaryPostfixOperation.CockroachDBUnaryPostfixOperator;
+import sqlancer.common.query.MultisetHash;
 
 public class CockroachDBTLPExtendedWhereOracle extends CockroachDBTLPBase {
 
@@ -32,7 +33,7 @@ public class CockroachDBTLPExtendedWhereOracle extends CockroachDBTLPBase {
         originalPredicate = generatePredicate();
         select.setWhereClause(originalPredicate);
         String originalQueryString = CockroachDBVisitor.asString(select);
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
 
         boolean allowOrderBy = Randomly.getBoolean();
         if (allowOrderBy) {
@@ -46,10 +47,10 @@ public class CockroachDBTLPExtendedWhereOracle extends CockroachDBTLPBase {
                 new CockroachDBUnaryPostfixOperation(predicate, CockroachDBUnaryPostfixOperator.IS_NULL)));
         String thirdQueryString = CockroachDBVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
                 thirdQueryString, combinedString, !allowOrderBy, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 
     public CockroachDBExpression combinePredicate(CockroachDBExpression expr) {
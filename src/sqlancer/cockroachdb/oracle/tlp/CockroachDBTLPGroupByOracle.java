@@ -11,6 +11,7 @@ import sqlancer.cockroachdb.CockroachDBProvider.CockroachDBGlobalState;
 import sqlancer.cockroachdb.CockroachDBVisitor;
 import sqlancer.cockroachdb.ast.CockroachDBColumnReference;
 import sqlancer.cockroachdb.ast.CockroachDBExpression;
+import sqlancer.common.query.MultisetHash;
 
 public class CockroachDBTLPGroupByOracle extends CockroachDBTLPBase {
 
@@ -25,7 +26,7 @@ public class CockroachDBTLPGroupByOracle extends CockroachDBTLPBase {
         select.setWhereClause(null);
         String originalQueryString = CockroachDBVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
 
         select.setWhereClause(predicate);
         String firstQueryString = CockroachDBVisitor.asString(select);
@@ -34,10 +35,10 @@ public class CockroachDBTLPGroupByOracle extends CockroachDBTLPBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = CockroachDBVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSetNoDuplicates(firstQueryString,
                 secondQueryString, thirdQueryString, combinedString, true, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 
     @Override
@@ -28,6 +28,7 @@ import sqlancer.cockroachdb.ast.CockroachDBUnaryPostfixOperation.CockroachDBUnar
 import sqlancer.cockroachdb.gen.CockroachDBExpressionGenerator;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.MultisetHash;
 
 public class CockroachDBTLPJoinOracle implements TestOracle {
 
@@ -82,7 +83,7 @@ public class CockroachDBTLPJoinOracle implements TestOracle {
         String originalQueryString = originalQueryString1 + " UNION ALL " + originalQueryString2 + " UNION ALL "
                 + originalQueryString2;
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
 
         // boolean allowOrderBy = Randomly.getBoolean();
         // if (allowOrderBy) {
@@ -101,10 +102,10 @@ public class CockroachDBTLPJoinOracle implements TestOracle {
                 Arrays.asList(CockroachDBJoin.createOuterJoin(leftTable, rightTable, OuterType.LEFT, isNullPredicate)));
         String thirdQueryString = CockroachDBVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
                 thirdQueryString, combinedString, Randomly.getBoolean(), state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 
     List<CockroachDBExpression> generateFetchColumns() {
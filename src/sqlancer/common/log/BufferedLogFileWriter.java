@@ -0,0 +1,158 @@
+package sqlancer.common.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A writer for log files to which a statement is appended for each statement executed (see --log-each-select). Rather
+ * than issuing a write system call for every statement, the content is buffered in memory and written to the file in
+ * large chunks by a shared background thread. The buffer is written to the file at the latest after the given flush
+ * interval, when {@link #flush()} or {@link #close()} is called (e.g., after an exception was thrown), and when the JVM
+ * shuts down. Thus, if the JVM crashes (e.g., due to a bug in an embedded DBMS), at most the statements of the last
+ * flush interval are lost.
+ */
+public class BufferedLogFileWriter extends Writer {
+
+    private static final Set<BufferedLogFileWriter> OPEN_WRITERS = ConcurrentHashMap.newKeySet();
+    private static ScheduledExecutorService flushScheduler;
+
+    private final FileChannel channel;
+    private final Charset charset = Charset.defaultCharset();
+    private final long flushIntervalMillis;
+    private final Object channelLock = new Object();
+    private StringBuilder buffer = new StringBuilder();
+
+    /**
+     * Creates a writer that truncates the given file.
+     *
+     * @param file
+     *            the log file
+     * @param flushIntervalMillis
+     *            the maximum time in milliseconds that written content is buffered before it is written to the file; if
+     *            0, the content is written to the file on every write call
+     *
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public BufferedLogFileWriter(File file, long flushIntervalMillis) throws IOException {
+        if (flushIntervalMillis < 0) {
+            throw new IllegalArgumentException(String.valueOf(flushIntervalMillis));
+        }
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.flushIntervalMillis = flushIntervalMillis;
+        if (flushIntervalMillis != 0) {
+            startFlushScheduler(flushIntervalMillis);
+            OPEN_WRITERS.add(this);
+        }
+    }
+
+    private static synchronized void startFlushScheduler(long flushIntervalMillis) {
+        if (flushScheduler != null) {
+            return;
+        }
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sqlancer-log-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        flushScheduler.scheduleWithFixedDelay(BufferedLogFileWriter::flushAll, flushIntervalMillis,
+                flushIntervalMillis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(BufferedLogFileWriter::flushAll));
+    }
+
+    private static void flushAll() {
+        for (BufferedLogFileWriter writer : OPEN_WRITERS) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        synchronized (this) {
+            buffer.append(cbuf, off, len);
+        }
+        if (flushIntervalMillis == 0) {
+            flush();
+        }
+    }
+
+    @Override
+    public void write(String str) throws IOException {
+        synchronized (this) {
+            buffer.append(str);
+        }
+        if (flushIntervalMillis == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered content to the file.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (channelLock) {
+            String content;
+            synchronized (this) {
+                if (buffer.length() == 0) {
+                    return;
+                }
+                content = buffer.toString();
+                buffer = new StringBuilder(buffer.capacity());
+            }
+            if (!channel.isOpen()) {
+                return;
+            }
+            writeContent(content);
+        }
+    }
+
+    /**
+     * Writes a chunk of buffered content to the file. Subclasses can override this method to change the file format.
+     *
+     * @param content
+     *            the content buffered since the last call
+     *
+     * @throws IOException
+     *             if writing to the file fails
+     */
+    protected void writeContent(String content) throws IOException {
+        writeFully(ByteBuffer.wrap(content.getBytes(charset)));
+    }
+
+    protected final void writeFully(ByteBuffer bytes) throws IOException {
+        synchronized (channelLock) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        OPEN_WRITERS.remove(this);
+        synchronized (channelLock) {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package sqlancer.common.log;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a journal written by {@link StatementJournalWriter} and renders it as the SQL text that would have been written
+ * to the -cur.log file. A journal whose last block is incomplete (e.g., because the JVM crashed while writing it) is
+ * rendered up to the last complete block.
+ *
+ * <p>
+ * Usage: {@code java -cp sqlancer.jar sqlancer.common.log.StatementJournalReader <journal file>...}
+ */
+public final class StatementJournalReader {
+
+    private final DataInputStream in;
+    private final String dbmsName;
+    private final String databaseName;
+    private final String databaseVersion;
+    private final long seedValue;
+
+    public StatementJournalReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        if (this.in.readInt() != StatementJournalWriter.MAGIC) {
+            throw new IOException("not a statement journal");
+        }
+        short version = this.in.readShort();
+        if (version != StatementJournalWriter.FORMAT_VERSION) {
+            throw new IOException("unsupported journal format version " + version);
+        }
+        dbmsName = this.in.readUTF();
+        databaseName = this.in.readUTF();
+        databaseVersion = this.in.readUTF();
+        seedValue = this.in.readLong();
+    }
+
+    public String getDBMSName() {
+        return dbmsName;
+    }
+
+    public String getDatabaseName() {
+        return databaseName;
+    }
+
+    public String getDatabaseVersion() {
+        return databaseVersion;
+    }
+
+    public long getSeedValue() {
+        return seedValue;
+    }
+
+    /**
+     * Reads the next block of logged text.
+     *
+     * @return the text of the next block, or null if the end of the journal has been reached
+     *
+     * @throws IOException
+     *             if the journal is corrupt or cannot be read
+     */
+    public String readBlock() throws IOException {
+        int blockType = in.read();
+        if (blockType == -1) {
+            return null;
+        }
+        byte[] uncompressed;
+        try {
+            int uncompressedLength = in.readInt();
+            int storedLength = in.readInt();
+            // a compressed block is smaller than its uncompressed text, and an uncompressed one has the same length
+            if (uncompressedLength < 0 || uncompressedLength > StatementJournalWriter.MAX_BLOCK_LENGTH
+                    || storedLength < 0 || storedLength > uncompressedLength) {
+                throw new IOException(String.format("corrupt journal: invalid block lengths %d and %d",
+                        uncompressedLength, storedLength));
+            }
+            byte[] stored = new byte[storedLength];
+            in.readFully(stored);
+            switch (blockType) {
+            case StatementJournalWriter.BLOCK_UNCOMPRESSED:
+                uncompressed = stored;
+                break;
+            case StatementJournalWriter.BLOCK_DEFLATE:
+                uncompressed = inflate(stored, uncompressedLength);
+                break;
+            default:
+                throw new IOException("unknown block type " + blockType);
+            }
+        } catch (EOFException e) {
+            // the last block was not completely written
+            return null;
+        }
+        return new String(uncompressed, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] inflate(byte[] stored, int uncompressedLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            byte[] uncompressed = new byte[uncompressedLength];
+            int length = inflater.inflate(uncompressed);
+            if (length != uncompressedLength) {
+                throw new IOException("corrupt block");
+            }
+            return uncompressed;
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Writes the complete journal as text.
+     *
+     * @param writer
+     *            the writer to which the text is written
+     *
+     * @throws IOException
+     *             if the journal is corrupt or cannot be read
+     */
+    public void render(Writer writer) throws IOException {
+        String block;
+        while ((block = readBlock()) != null) {
+            writer.write(block);
+        }
+        writer.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: StatementJournalReader <journal file>...");
+            System.exit(1);
+        }
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        for (String fileName : args) {
+            try (InputStream in = new FileInputStream(new File(fileName))) {
+                StatementJournalReader reader = new StatementJournalReader(in);
+                out.println("-- Journal: " + fileName);
+                out.println("-- DBMS: " + reader.getDBMSName());
+                reader.render(out);
+            }
+        }
+        out.flush();
+    }
+
+}
@@ -0,0 +1,101 @@
+package sqlancer.common.log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the statements logged by --log-each-select to an append-only binary journal rather than to a text file. The
+ * journal starts with a header that records the DBMS, database, DBMS version and seed value, followed by a sequence of
+ * length-prefixed blocks, each of which holds the (optionally Deflate-compressed) text logged since the previous block.
+ * {@link StatementJournalReader} renders a journal back to the text of the corresponding -cur.log file.
+ */
+public class StatementJournalWriter extends BufferedLogFileWriter {
+
+    static final int MAGIC = 0x53514c4a; // "SQLJ"
+    static final short FORMAT_VERSION = 1;
+    static final byte BLOCK_UNCOMPRESSED = 0;
+    static final byte BLOCK_DEFLATE = 1;
+    // the reader rejects larger lengths, which can only stem from a corrupt journal, before allocating a block
+    static final int MAX_BLOCK_LENGTH = 1 << 26;
+    // a char is encoded as at most three bytes in UTF-8
+    private static final int MAX_BLOCK_CHARS = MAX_BLOCK_LENGTH / 3;
+
+    private final boolean compress;
+    private final Deflater deflater;
+    private byte[] compressionBuffer = new byte[0];
+
+    public StatementJournalWriter(File file, long flushIntervalMillis, boolean compress, String dbmsName,
+            String databaseName, String databaseVersion, long seedValue) throws IOException {
+        super(file, flushIntervalMillis);
+        this.compress = compress;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(header)) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeUTF(dbmsName);
+            out.writeUTF(databaseName);
+            out.writeUTF(databaseVersion == null ? "" : databaseVersion);
+            out.writeLong(seedValue);
+        }
+        writeFully(ByteBuffer.wrap(header.toByteArray()));
+    }
+
+    @Override
+    protected void writeContent(String content) throws IOException {
+        if (content.length() > MAX_BLOCK_CHARS) {
+            int end = MAX_BLOCK_CHARS;
+            if (Character.isHighSurrogate(content.charAt(end - 1))) {
+                end--;
+            }
+            writeContent(content.substring(0, end));
+            writeContent(content.substring(end));
+            return;
+        }
+        byte[] uncompressed = content.getBytes(StandardCharsets.UTF_8);
+        byte blockType = BLOCK_UNCOMPRESSED;
+        byte[] stored = uncompressed;
+        int storedLength = uncompressed.length;
+        if (compress) {
+            if (compressionBuffer.length < uncompressed.length) {
+                compressionBuffer = new byte[uncompressed.length];
+            }
+            deflater.reset();
+            deflater.setInput(uncompressed);
+            deflater.finish();
+            int compressedLength = deflater.deflate(compressionBuffer);
+            // fall back to an uncompressed block if compression does not pay off
+            if (deflater.finished() && compressedLength < uncompressed.length) {
+                blockType = BLOCK_DEFLATE;
+                stored = compressionBuffer;
+                storedLength = compressedLength;
+            }
+        }
+        ByteBuffer block = ByteBuffer.allocate(Byte.BYTES + 2 * Integer.BYTES + storedLength);
+        block.put(blockType);
+        block.putInt(uncompressed.length);
+        block.putInt(storedLength);
+        block.put(stored, 0, storedLength);
+        // the cast avoids calling ByteBuffer.flip(), which does not exist in Java 8
+        ((Buffer) block).flip();
+        writeFully(block);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+}
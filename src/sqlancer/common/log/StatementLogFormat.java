@@ -0,0 +1,31 @@
+package sqlancer.common.log;
+
+/**
+ * The file format used for the statements logged by --log-each-select.
+ */
+public enum StatementLogFormat {
+
+    /**
+     * A plain-text -cur.log file.
+     */
+    TEXT("-cur.log"),
+    /**
+     * A binary -cur.journal file (see {@link StatementJournalWriter}).
+     */
+    JOURNAL("-cur.journal"),
+    /**
+     * A binary -cur.journal file whose blocks are Deflate-compressed.
+     */
+    COMPRESSED_JOURNAL("-cur.journal");
+
+    private final String fileSuffix;
+
+    StatementLogFormat(String fileSuffix) {
+        this.fileSuffix = fileSuffix;
+    }
+
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+
+}
@@ -0,0 +1,46 @@
+package sqlancer.common.metrics;
+
+/**
+ * The phases between which the time spent testing a database is broken down (see
+ * {@link sqlancer.GlobalState#recordTime(ExecutionPhase, long)}). The phases can overlap: for example, the time spent
+ * refreshing the schema after a statement is also included in the time of the phase in which the statement was executed.
+ */
+public enum ExecutionPhase {
+
+    /**
+     * Creating the tables, views, indexes, and rows of the database.
+     */
+    GENERATION("generation"),
+    /**
+     * Running the test oracles.
+     */
+    ORACLE("oracle"),
+    /**
+     * Reading the schema of the database.
+     */
+    SCHEMA_REFRESH("schema refresh"),
+    /**
+     * Executing statements through {@link sqlancer.GlobalState#executeStatement}.
+     */
+    STATEMENT_EXECUTION("statement execution");
+
+    private final String description;
+
+    ExecutionPhase(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the name of the counter in the {@link MetricsRegistry} that accumulates the time spent in this phase.
+     *
+     * @return the name of the counter
+     */
+    public String getCounterName() {
+        return description.replace(' ', '_') + "_nanos";
+    }
+
+}
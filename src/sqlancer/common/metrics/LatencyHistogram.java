@@ -0,0 +1,138 @@
+package sqlancer.common.metrics;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that can be updated concurrently. Similar to an HDR histogram, each power of
+ * two is split into a fixed number of linear sub-buckets, so that recording a value is a constant-time operation that
+ * does not allocate, and percentiles are reported with a bounded relative error (at most 25%).
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NR_BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final SortedMap<String, String> labels;
+    private final LongAdder[] buckets = new LongAdder[NR_BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram(String name, SortedMap<String, String> labels) {
+        this.name = name;
+        this.labels = Collections.unmodifiableSortedMap(labels);
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SortedMap<String, String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos
+     *            the latency in nanoseconds; negative values (e.g., caused by a non-monotonic clock) are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[getBucketIndex(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowerBound = (long) (SUB_BUCKETS | subBucket) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[NR_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NR_BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        return new Snapshot(counts, count, sum.sum(), max.get());
+    }
+
+    /**
+     * The values of a histogram at a given point in time.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sumNanos;
+        private final long maxNanos;
+
+        Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSumNanos() {
+            return sumNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Gets an upper bound for the given percentile.
+         *
+         * @param percentile
+         *            the percentile between 0 and 100
+         *
+         * @return the upper bound of the bucket that contains the percentile in nanoseconds, or 0 if no value has been
+         *         recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long cumulativeCount = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulativeCount += counts[i];
+                if (cumulativeCount >= rank) {
+                    return Math.min(getBucketUpperBound(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,231 @@
+package sqlancer.common.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes the counters and latency histograms of a {@link MetricsRegistry} to a file, either as JSON or in
+ * the Prometheus text exposition format (e.g., to be picked up by the textfile collector of the node exporter). The file
+ * is replaced atomically, so readers never observe a partially-written file.
+ */
+public class MetricsExporter {
+
+    private static final double[] PERCENTILES = { 50, 90, 99 };
+    private static final double NANOS_PER_MILLISECOND = 1_000_000d;
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final MetricsRegistry registry;
+    private final File file;
+    private final MetricsFormat format;
+    private final SortedMap<String, String> commonLabels = new TreeMap<>();
+
+    /**
+     * Creates an exporter.
+     *
+     * @param registry
+     *            the registry whose metrics are exported
+     * @param file
+     *            the file to which the metrics are written
+     * @param format
+     *            the file format
+     * @param commonLabelNamesAndValues
+     *            alternating label names and values that are added to all metrics (e.g., "dbms", "sqlite3")
+     */
+    public MetricsExporter(MetricsRegistry registry, File file, MetricsFormat format,
+            String... commonLabelNamesAndValues) {
+        this.registry = registry;
+        this.file = file;
+        this.format = format;
+        for (int i = 0; i < commonLabelNamesAndValues.length; i += 2) {
+            commonLabels.put(commonLabelNamesAndValues[i], commonLabelNamesAndValues[i + 1]);
+        }
+    }
+
+    /**
+     * Starts exporting the metrics in the given interval on a background thread, and a final time when the JVM shuts
+     * down.
+     *
+     * @param intervalSeconds
+     *            the export interval in seconds
+     */
+    public void start(long intervalSeconds) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sqlancer-metrics-exporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::exportAndReportErrors, intervalSeconds, intervalSeconds,
+                TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::exportAndReportErrors));
+    }
+
+    private void exportAndReportErrors() {
+        try {
+            export();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the current metrics to the file.
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public synchronized void export() throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        File tmpFile = File.createTempFile(file.getName(), ".tmp", dir);
+        try (Writer writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+            write(writer);
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void write(Writer writer) throws IOException {
+        switch (format) {
+        case JSON:
+            writeJson(writer);
+            break;
+        case PROMETHEUS:
+            writePrometheus(writer);
+            break;
+        default:
+            throw new AssertionError(format);
+        }
+    }
+
+    private void writeJson(Writer writer) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"timestamp\": ").append(System.currentTimeMillis());
+        sb.append(",\n  \"labels\": ");
+        appendJsonObject(sb, commonLabels);
+        sb.append(",\n  \"counters\": {");
+        String separator = "\n";
+        for (Map.Entry<String, Long> counter : registry.snapshot().entrySet()) {
+            sb.append(separator).append("    ");
+            appendJsonString(sb, counter.getKey());
+            sb.append(": ").append(counter.getValue());
+            separator = ",\n";
+        }
+        sb.append("\n  },\n  \"histograms\": [");
+        separator = "\n";
+        for (LatencyHistogram histogram : registry.getHistograms()) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            sb.append(separator).append("    { \"name\": ");
+            appendJsonString(sb, histogram.getName());
+            sb.append(", \"labels\": ");
+            appendJsonObject(sb, histogram.getLabels());
+            sb.append(", \"count\": ").append(snapshot.getCount());
+            sb.append(", \"sum_ms\": ").append(formatMillis(snapshot.getSumNanos()));
+            for (double percentile : PERCENTILES) {
+                sb.append(String.format(Locale.ROOT, ", \"p%d_ms\": ", (int) percentile));
+                sb.append(formatMillis(snapshot.getValueAtPercentile(percentile)));
+            }
+            sb.append(", \"max_ms\": ").append(formatMillis(snapshot.getMaxNanos())).append(" }");
+            separator = ",\n";
+        }
+        sb.append("\n  ]\n}\n");
+        writer.write(sb.toString());
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLISECOND);
+    }
+
+    private static void appendJsonObject(StringBuilder sb, SortedMap<String, String> map) {
+        sb.append('{');
+        String separator = "";
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            sb.append(separator);
+            appendJsonString(sb, entry.getKey());
+            sb.append(": ");
+            appendJsonString(sb, entry.getValue());
+            separator = ", ";
+        }
+        sb.append('}');
+    }
+
+    private static void appendJsonString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (char c : s.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private void writePrometheus(Writer writer) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Long> counter : registry.snapshot().entrySet()) {
+            String metricName = "sqlancer_" + counter.getKey() + "_total";
+            sb.append("# TYPE ").append(metricName).append(" counter\n");
+            sb.append(metricName);
+            appendPrometheusLabels(sb, commonLabels, null);
+            sb.append(' ').append(counter.getValue()).append('\n');
+        }
+        String previousName = null;
+        for (LatencyHistogram histogram : registry.getHistograms()) {
+            String metricName = "sqlancer_" + histogram.getName() + "_seconds";
+            if (!metricName.equals(previousName)) {
+                sb.append("# TYPE ").append(metricName).append(" summary\n");
+                previousName = metricName;
+            }
+            SortedMap<String, String> labels = new TreeMap<>(commonLabels);
+            labels.putAll(histogram.getLabels());
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            for (double percentile : PERCENTILES) {
+                sb.append(metricName);
+                appendPrometheusLabels(sb, labels, String.valueOf(percentile / 100));
+                sb.append(' ').append(formatSeconds(snapshot.getValueAtPercentile(percentile))).append('\n');
+            }
+            sb.append(metricName).append("_sum");
+            appendPrometheusLabels(sb, labels, null);
+            sb.append(' ').append(formatSeconds(snapshot.getSumNanos())).append('\n');
+            sb.append(metricName).append("_count");
+            appendPrometheusLabels(sb, labels, null);
+            sb.append(' ').append(snapshot.getCount()).append('\n');
+        }
+        writer.write(sb.toString());
+    }
+
+    private static String formatSeconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / NANOS_PER_SECOND);
+    }
+
+    private static void appendPrometheusLabels(StringBuilder sb, SortedMap<String, String> labels, String quantile) {
+        if (labels.isEmpty() && quantile == null) {
+            return;
+        }
+        sb.append('{');
+        String separator = "";
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            sb.append(separator).append(label.getKey()).append("=\"");
+            sb.append(label.getValue().replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"));
+            sb.append('"');
+            separator = ",";
+        }
+        if (quantile != null) {
+            sb.append(separator).append("quantile=\"").append(quantile).append('"');
+        }
+        sb.append('}');
+    }
+
+}
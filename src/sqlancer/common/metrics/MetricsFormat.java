@@ -0,0 +1,8 @@
+package sqlancer.common.metrics;
+
+/**
+ * The file format in which metrics are exported (see {@link MetricsExporter}).
+ */
+public enum MetricsFormat {
+    JSON, PROMETHEUS
+}
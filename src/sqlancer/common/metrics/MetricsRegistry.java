@@ -0,0 +1,82 @@
+package sqlancer.common.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A registry of named counters and latency histograms that are updated concurrently by the testing threads. The
+ * counters are {@link LongAdder}s, which spread concurrent updates over multiple cells rather than contending on a
+ * single cache line, at the cost of a slightly more expensive read. Reads happen only when progress information is
+ * printed, while updates happen for every executed statement.
+ */
+public class MetricsRegistry {
+
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the counter with the given name, creating it if it does not exist yet. Callers are expected to look up a
+     * counter once and keep a reference to it.
+     *
+     * @param name
+     *            the name of the counter
+     *
+     * @return the counter
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Gets the latency histogram with the given name and labels, creating it if it does not exist yet. As for counters,
+     * callers are expected to look up a histogram once and keep a reference to it.
+     *
+     * @param name
+     *            the name of the histogram (e.g., action_latency)
+     * @param labelNamesAndValues
+     *            alternating label names and values that distinguish histograms with the same name (e.g., "action",
+     *            "INSERT")
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram histogram(String name, String... labelNamesAndValues) {
+        if (labelNamesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException();
+        }
+        SortedMap<String, String> labels = new TreeMap<>();
+        for (int i = 0; i < labelNamesAndValues.length; i += 2) {
+            labels.put(labelNamesAndValues[i], labelNamesAndValues[i + 1]);
+        }
+        return histograms.computeIfAbsent(name + labels, k -> new LatencyHistogram(name, labels));
+    }
+
+    public List<LatencyHistogram> getHistograms() {
+        List<LatencyHistogram> result = new ArrayList<>(histograms.values());
+        result.sort(Comparator.comparing((LatencyHistogram h) -> h.getName())
+                .thenComparing(h -> h.getLabels().toString()));
+        return result;
+    }
+
+    /**
+     * Gets the current values of all counters. Since the threads continue to update the counters while they are read,
+     * the values are not guaranteed to be consistent with each other.
+     *
+     * @return a map from counter name to value, ordered by name
+     */
+    public SortedMap<String, Long> snapshot() {
+        SortedMap<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+            snapshot.put(counter.getKey(), counter.getValue().sum());
+        }
+        return Collections.unmodifiableSortedMap(snapshot);
+    }
+
+}
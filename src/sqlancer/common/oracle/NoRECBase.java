@@ -23,4 +23,36 @@ public abstract class NoRECBase<S extends SQLGlobalState<?, ?>> implements TestO
         this.options = state.getOptions();
     }
 
+    /**
+     * Returns a query that counts the rows of the optimized query in the DBMS, so that the rows need not be fetched,
+     * if enabled by --norec-count-folding.
+     *
+     * @param optimizedQuery
+     *            the optimized query, whose rows would otherwise be counted by iterating over them
+     * @param nrColumns
+     *            the number of columns of the optimized query
+     *
+     * @return the counting query, or null if the rows should be counted by iterating over them
+     */
+    protected String getFoldedCountQuery(String optimizedQuery, int nrColumns) {
+        return options.useNoRECCountFolding() ? getCountQuery(optimizedQuery, nrColumns) : null;
+    }
+
+    /**
+     * Wraps the optimized query in a derived table whose rows are counted. The derived table must not be merged into
+     * the outer query (e.g., by SQLite's query flattener or PostgreSQL's subquery pull-up), since the WHERE clause
+     * would then be optimized together with the COUNT(*), rather than as in the optimized query. DBMSs that merge
+     * derived tables override this method, for example, to add a clause that prevents this.
+     *
+     * @param optimizedQuery
+     *            the optimized query
+     * @param nrColumns
+     *            the number of columns of the optimized query
+     *
+     * @return the counting query, or null if the DBMS cannot be prevented from merging the derived table
+     */
+    protected String getCountQuery(String optimizedQuery, int nrColumns) {
+        return "SELECT COUNT(*) FROM (" + optimizedQuery + ") AS res";
+    }
+
 }
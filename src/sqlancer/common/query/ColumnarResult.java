@@ -0,0 +1,269 @@
+package sqlancer.common.query;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import sqlancer.ComparatorHelper;
+
+/**
+ * A materialized result set that stores its values column by column in primitive arrays, rather than as a string per
+ * value. Integers are stored as longs, floating-point and decimal numbers as the bits of doubles, and all other values
+ * (e.g., text and blobs) as byte arrays. Since a column in some DBMSs (e.g., SQLite) can contain values of different
+ * types, the type of each value is stored separately, which also encodes whether the value is NULL.
+ *
+ * Values are compared based on their types: integers are compared exactly, values involving a floating-point number
+ * with a tolerance (see {@link ComparatorHelper#equals(double, double)}), and text that differs is also compared as a
+ * number, if possible, which corresponds to {@link ComparatorHelper#isEqualDouble(String, String)}.
+ */
+public final class ColumnarResult {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte BYTES = 3;
+
+    private final Column[] columns;
+    private int nrRows;
+
+    private static final class Column {
+
+        private byte[] types = new byte[INITIAL_CAPACITY];
+        // the long values, or the bits of the double values (see Double#doubleToRawLongBits)
+        private long[] values = new long[INITIAL_CAPACITY];
+        // allocated when the first value that is neither a number nor NULL is added
+        private byte[][] bytes;
+
+        void add(int row, Object value) {
+            if (row == types.length) {
+                types = Arrays.copyOf(types, row * 2);
+                values = Arrays.copyOf(values, row * 2);
+                if (bytes != null) {
+                    bytes = Arrays.copyOf(bytes, row * 2);
+                }
+            }
+            if (value == null) {
+                types[row] = NULL;
+            } else if (value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte) {
+                types[row] = LONG;
+                values[row] = ((Number) value).longValue();
+            } else if (value instanceof Boolean) {
+                types[row] = LONG;
+                values[row] = (Boolean) value ? 1 : 0;
+            } else if (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE) {
+                types[row] = LONG;
+                values[row] = ((BigInteger) value).longValue();
+            } else if (value instanceof BigDecimal && isLong((BigDecimal) value)) {
+                types[row] = LONG;
+                values[row] = ((BigDecimal) value).longValueExact();
+            } else if (value instanceof Number) {
+                types[row] = DOUBLE;
+                values[row] = Double.doubleToRawLongBits(((Number) value).doubleValue());
+            } else {
+                if (bytes == null) {
+                    bytes = new byte[types.length][];
+                }
+                types[row] = BYTES;
+                if (value instanceof byte[]) {
+                    bytes[row] = (byte[]) value;
+                } else {
+                    bytes[row] = value.toString().getBytes(StandardCharsets.UTF_8);
+                }
+            }
+        }
+
+        private static boolean isLong(BigDecimal value) {
+            return value.scale() <= 0 && value.precision() - value.scale() < 19;
+        }
+
+        double getNumber(int row) {
+            switch (types[row]) {
+            case LONG:
+                return values[row];
+            case DOUBLE:
+                return Double.longBitsToDouble(values[row]);
+            default:
+                // throws a NumberFormatException if the text is not a number
+                return Double.parseDouble(new String(bytes[row], StandardCharsets.UTF_8));
+            }
+        }
+
+        boolean valueEquals(int row, Column other, int otherRow) {
+            byte type = types[row];
+            byte otherType = other.types[otherRow];
+            if (type == NULL || otherType == NULL) {
+                return type == otherType;
+            }
+            if (type == LONG && otherType == LONG) {
+                return values[row] == other.values[otherRow];
+            }
+            if (type == BYTES && otherType == BYTES && Arrays.equals(bytes[row], other.bytes[otherRow])) {
+                return true;
+            }
+            try {
+                double value = getNumber(row);
+                double otherValue = other.getNumber(otherRow);
+                return Double.compare(value, otherValue) == 0 || ComparatorHelper.equals(value, otherValue);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        String getString(int row) {
+            switch (types[row]) {
+            case NULL:
+                return null;
+            case LONG:
+                return String.valueOf(values[row]);
+            case DOUBLE:
+                return String.valueOf(Double.longBitsToDouble(values[row]));
+            default:
+                return new String(bytes[row], StandardCharsets.UTF_8);
+            }
+        }
+
+    }
+
+    private ColumnarResult(int nrColumns) {
+        columns = new Column[nrColumns];
+        for (int i = 0; i < nrColumns; i++) {
+            columns[i] = new Column();
+        }
+    }
+
+    /**
+     * Reads all remaining rows of the result set.
+     *
+     * @param result
+     *            the result set, which is not closed
+     *
+     * @return the values of the result set
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static ColumnarResult fetch(SQLancerResultSet result) throws SQLException {
+        ColumnarResult columnarResult = new ColumnarResult(result.getColumnCount());
+        while (result.next()) {
+            for (int i = 0; i < columnarResult.columns.length; i++) {
+                columnarResult.columns[i].add(columnarResult.nrRows, result.getObject(i + 1));
+            }
+            columnarResult.nrRows++;
+        }
+        return columnarResult;
+    }
+
+    public int getNrRows() {
+        return nrRows;
+    }
+
+    public int getNrColumns() {
+        return columns.length;
+    }
+
+    public boolean isEmpty() {
+        return nrRows == 0;
+    }
+
+    /**
+     * Returns a value as a string, for example, to log it.
+     *
+     * @param row
+     *            the index of the row, starting at 0
+     * @param column
+     *            the index of the column, starting at 0
+     *
+     * @return the value as a string, or null if the value is NULL
+     */
+    public String getString(int row, int column) {
+        checkRow(row);
+        return columns[column].getString(row);
+    }
+
+    public boolean isNull(int row, int column) {
+        checkRow(row);
+        return columns[column].types[row] == NULL;
+    }
+
+    /**
+     * Checks whether the values of a row are equal to the values of a row in another result.
+     *
+     * @param row
+     *            the index of the row in this result
+     * @param other
+     *            the other result
+     * @param otherRow
+     *            the index of the row in the other result
+     *
+     * @return true if both rows have the same number of values, which are pairwise equal
+     */
+    public boolean rowEquals(int row, ColumnarResult other, int otherRow) {
+        checkRow(row);
+        other.checkRow(otherRow);
+        if (columns.length != other.columns.length) {
+            return false;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].valueEquals(row, other.columns[i], otherRow)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether both results contain equal rows in the same order.
+     *
+     * @param other
+     *            the other result
+     *
+     * @return true if the results have the same number of rows, which are pairwise equal
+     */
+    public boolean rowsEqual(ColumnarResult other) {
+        if (nrRows != other.nrRows) {
+            return false;
+        }
+        for (int i = 0; i < nrRows; i++) {
+            if (!rowEquals(i, other, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= nrRows) {
+            throw new IndexOutOfBoundsException(String.valueOf(row));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < nrRows; i++) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            if (columns.length != 1) {
+                sb.append('(');
+            }
+            for (int j = 0; j < columns.length; j++) {
+                if (j != 0) {
+                    sb.append(", ");
+                }
+                sb.append(columns[j].getString(i));
+            }
+            if (columns.length != 1) {
+                sb.append(')');
+            }
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+}
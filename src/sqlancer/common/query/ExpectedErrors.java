@@ -1,7 +1,9 @@
 package sqlancer.common.query;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -11,13 +13,25 @@ import java.util.Set;
  */
 public class ExpectedErrors {
 
-    private final Set<String> errors = new HashSet<>();
+    // the errors in the order in which they were added, without duplicates
+    private final List<String> errors = new ArrayList<>();
+    private final Set<String> errorSet = new HashSet<>();
+    // the hash code of the errors list, which is maintained incrementally to cheaply look up shared matchers
+    private int errorsHashCode = 1;
+    // compiled when the first error is checked, and discarded when further errors are added
+    private SubstringMatcher matcher;
 
     public ExpectedErrors add(String error) {
         if (error == null) {
             throw new IllegalArgumentException();
         }
+        if (!errorSet.add(error)) {
+            // oracles add some errors again for every query
+            return this;
+        }
         errors.add(error);
+        errorsHashCode = 31 * errorsHashCode + error.hashCode();
+        matcher = null;
         return this;
     }
 
@@ -34,16 +48,18 @@ public class ExpectedErrors {
         if (error == null) {
             throw new IllegalArgumentException();
         }
-        for (String s : errors) {
-            if (error.contains(s)) {
-                return true;
-            }
+        SubstringMatcher currentMatcher = matcher;
+        if (currentMatcher == null) {
+            currentMatcher = SubstringMatcher.compile(errors, errorsHashCode);
+            matcher = currentMatcher;
         }
-        return false;
+        return currentMatcher.matches(error);
     }
 
     public ExpectedErrors addAll(Collection<String> list) {
-        errors.addAll(list);
+        for (String error : list) {
+            add(error);
+        }
         return this;
     }
 
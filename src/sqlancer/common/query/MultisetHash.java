@@ -0,0 +1,91 @@
+package sqlancer.common.query;
+
+/**
+ * An order-independent 128-bit hash of a multiset of strings, which allows comparing two result sets without
+ * materializing them. Each value is hashed to 128 bits and the hashes are added modulo 2^128, so that the hash depends
+ * on how often each value occurs, but not on the order in which the values are added. Two multisets with the same
+ * values and multiplicities always have equal hashes, while different ones collide with a negligible probability
+ * (unless the values are chosen adversarially, which is not a concern for generated queries).
+ */
+public final class MultisetHash {
+
+    private static final long LOW_SEED = 0x9e3779b97f4a7c15L;
+    private static final long HIGH_SEED = 0xc2b2ae3d27d4eb4fL;
+    private static final long LOW_MULTIPLIER = 0x100000001b3L;
+    private static final long HIGH_MULTIPLIER = 0xff51afd7ed558ccdL;
+    // distinguishes NULL from all strings, including the empty one
+    private static final int NULL_LENGTH = -1;
+
+    private long low;
+    private long high;
+    private long size;
+
+    /**
+     * Adds an occurrence of the value to the multiset.
+     *
+     * @param value
+     *            the value, which may be null
+     */
+    public void add(String value) {
+        long l = LOW_SEED;
+        long h = HIGH_SEED;
+        int length;
+        if (value == null) {
+            length = NULL_LENGTH;
+        } else {
+            length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                l = (l ^ c) * LOW_MULTIPLIER;
+                h = Long.rotateLeft(h + c, 29) * HIGH_MULTIPLIER;
+            }
+        }
+        long valueLow = mix(l ^ length);
+        long valueHigh = mix(h + length);
+        // 128-bit addition
+        long newLow = low + valueLow;
+        high += valueHigh + (Long.compareUnsigned(newLow, low) < 0 ? 1 : 0);
+        low = newLow;
+        size++;
+    }
+
+    /**
+     * Returns the number of values that were added, including duplicates.
+     *
+     * @return the size of the multiset
+     */
+    public long size() {
+        return size;
+    }
+
+    private static long mix(long value) {
+        // the finalizer of MurmurHash3
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof MultisetHash)) {
+            return false;
+        }
+        MultisetHash other = (MultisetHash) obj;
+        return low == other.low && high == other.high && size == other.size;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(low);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x (%d values)", high, low, size);
+    }
+
+}
@@ -31,6 +31,15 @@ public abstract class Query<C extends SQLancerDBConnection> implements Loggable
 
     public abstract ExpectedErrors getExpectedErrors();
 
+    /**
+     * Gets the number of rows affected by the last execution of the query.
+     *
+     * @return the update count reported by the DBMS, or -1 if it is unknown
+     */
+    public long getUpdateCount() {
+        return -1;
+    }
+
     @Override
     public String toString() {
         return getQueryString();
@@ -8,12 +8,15 @@ import java.sql.Statement;
 import sqlancer.GlobalState;
 import sqlancer.Main;
 import sqlancer.SQLConnection;
+import sqlancer.StatementWatchdog;
+import sqlancer.StatementWatchdog.WatchedStatement;
 
 public class SQLQueryAdapter extends Query<SQLConnection> {
 
     private final String query;
     private final ExpectedErrors expectedErrors;
     private final boolean couldAffectSchema;
+    private long updateCount = -1;
 
     public SQLQueryAdapter(String query) {
         this(query, new ExpectedErrors());
@@ -71,73 +74,155 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
     @Override
     public <G extends GlobalState<?, ?, SQLConnection>> boolean execute(G globalState, String... fills)
             throws SQLException {
+        SQLConnection con = globalState.getConnection();
         Statement s;
         if (fills.length > 0) {
-            s = globalState.getConnection().prepareStatement(fills[0]);
+            s = con.acquirePreparedStatement(fills[0]);
             for (int i = 1; i < fills.length; i++) {
                 ((PreparedStatement) s).setString(i, fills[i]);
             }
         } else {
-            s = globalState.getConnection().createStatement();
+            s = con.acquireStatement();
         }
+        updateCount = -1;
+        WatchedStatement watchedStatement = StatementWatchdog.watch(s, query, globalState);
         try {
             if (fills.length > 0) {
                 ((PreparedStatement) s).execute();
             } else {
                 s.execute(query);
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            watchedStatement.close();
+            updateCount = s.getUpdateCount();
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
+            release(con, s, fills);
             return true;
         } catch (Exception e) {
-            Main.nrUnsuccessfulActions.addAndGet(1);
-            checkException(e);
+            watchedStatement.close();
+            // a statement that caused an error is not reused, since it might be in an unexpected state
+            s.close();
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
+            checkException(e, watchedStatement);
             return false;
         }
     }
 
+    private static void release(SQLConnection con, Statement s, String... fills) throws SQLException {
+        if (fills.length > 0) {
+            con.releasePreparedStatement(fills[0], (PreparedStatement) s);
+        } else {
+            con.releaseStatement(s);
+        }
+    }
+
     public void checkException(Exception e) throws AssertionError {
         if (!expectedErrors.errorIsExpected(e.getMessage())) {
             throw new AssertionError(query, e);
         }
     }
 
+    private void checkException(Exception e, WatchedStatement watchedStatement) throws AssertionError {
+        // the error of a statement that was cancelled due to its timeout is expected
+        if (!watchedStatement.wasCancelled()) {
+            checkException(e);
+        }
+    }
+
     @Override
     public <G extends GlobalState<?, ?, SQLConnection>> SQLancerResultSet executeAndGet(G globalState, String... fills)
             throws SQLException {
+        SQLConnection con = globalState.getConnection();
         Statement s;
         if (fills.length > 0) {
-            s = globalState.getConnection().prepareStatement(fills[0]);
+            s = con.acquirePreparedStatement(fills[0]);
             for (int i = 1; i < fills.length; i++) {
                 ((PreparedStatement) s).setString(i, fills[i]);
             }
         } else {
-            s = globalState.getConnection().createStatement();
+            s = con.acquireStatement();
         }
         ResultSet result;
+        WatchedStatement watchedStatement = StatementWatchdog.watch(s, query, globalState);
         try {
             if (fills.length > 0) {
                 result = ((PreparedStatement) s).executeQuery();
             } else {
                 result = s.executeQuery(query);
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             if (result == null) {
+                watchedStatement.close();
+                release(con, s, fills);
                 return null;
             }
-            return new SQLancerResultSet(result);
+            // drivers such as sqlite-jdbc compute most rows only when they are fetched, so they are still watched
+            return new SQLancerResultSet(result, () -> {
+                watchedStatement.close();
+                release(con, s, fills);
+            });
         } catch (Exception e) {
+            watchedStatement.close();
             s.close();
-            Main.nrUnsuccessfulActions.addAndGet(1);
-            checkException(e);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
+            checkException(e, watchedStatement);
         }
         return null;
     }
 
+    /**
+     * Executes the query like {@link #executeAndGet(GlobalState, String...)}, but lets the driver fetch the rows
+     * incrementally, if supported (see {@link sqlancer.ResultStreaming}). This is intended for oracles that only count
+     * or hash the rows, which then read large result sets in bounded memory. Until the result set has been closed, no
+     * other statement may be executed on the connection.
+     *
+     * @param <G>
+     *            the type of the global state
+     * @param globalState
+     *            the global state
+     *
+     * @return the result set, or null if the query did not return a result set
+     *
+     * @throws SQLException
+     *             if the statement cannot be created or released
+     */
+    public <G extends GlobalState<?, ?, SQLConnection>> SQLancerResultSet executeAndStream(G globalState)
+            throws SQLException {
+        SQLConnection con = globalState.getConnection();
+        Statement s = con.acquireStreamingStatement();
+        ResultSet result;
+        WatchedStatement watchedStatement = StatementWatchdog.watch(s, query, globalState);
+        try {
+            result = s.executeQuery(query);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
+        } catch (Exception e) {
+            watchedStatement.close();
+            con.releaseStreamingStatement(s, false);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
+            checkException(e, watchedStatement);
+            return null;
+        }
+        if (result == null) {
+            watchedStatement.close();
+            con.releaseStreamingStatement(s, true);
+            return null;
+        }
+        // the streamed rows are fetched while the result set is read, which must also be bounded by the timeout
+        return new SQLancerResultSet(result, () -> {
+            watchedStatement.close();
+            con.releaseStreamingStatement(s, true);
+        });
+    }
+
     @Override
     public boolean couldAffectSchema() {
         return couldAffectSchema;
     }
 
+    @Override
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
     @Override
     public ExpectedErrors getExpectedErrors() {
         return expectedErrors;
@@ -8,9 +8,25 @@ public class SQLancerResultSet implements Closeable {
 
     ResultSet rs;
     private Runnable runnableEpilogue;
+    private final StatementRelease statementRelease;
+
+    /**
+     * Returns the statement that produced a result set to its owner once the result set is closed (see
+     * {@link sqlancer.SQLConnection#releaseStatement(java.sql.Statement)}). If no release is given, the statement is
+     * closed.
+     */
+    @FunctionalInterface
+    public interface StatementRelease {
+        void release() throws SQLException;
+    }
 
     public SQLancerResultSet(ResultSet rs) {
+        this(rs, null);
+    }
+
+    public SQLancerResultSet(ResultSet rs, StatementRelease statementRelease) {
         this.rs = rs;
+        this.statementRelease = statementRelease;
     }
 
     @Override
@@ -19,8 +35,13 @@ public class SQLancerResultSet implements Closeable {
             if (runnableEpilogue != null) {
                 runnableEpilogue.run();
             }
-            rs.getStatement().close();
-            rs.close();
+            if (statementRelease == null) {
+                rs.getStatement().close();
+                rs.close();
+            } else {
+                rs.close();
+                statementRelease.release();
+            }
         } catch (SQLException e) {
             throw new AssertionError(e);
         }
@@ -46,6 +67,14 @@ public class SQLancerResultSet implements Closeable {
         return rs.getLong(i);
     }
 
+    public Object getObject(int i) throws SQLException {
+        return rs.getObject(i);
+    }
+
+    public int getColumnCount() throws SQLException {
+        return rs.getMetaData().getColumnCount();
+    }
+
     public void registerEpilogue(Runnable runnableEpilogue) {
         this.runnableEpilogue = runnableEpilogue;
     }
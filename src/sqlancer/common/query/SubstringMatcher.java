@@ -0,0 +1,210 @@
+package sqlancer.common.query;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable Aho-Corasick automaton that checks whether a string contains any of a set of substrings in a single pass
+ * over the string, rather than calling {@link String#contains(CharSequence)} for each of the substrings. Since the same
+ * sets of expected errors are created over and over again (e.g., for every statement generated, or by each oracle),
+ * compiled automata are shared (see {@link #compile(List, int)}). Once the maximum number of shared automata has been
+ * reached, further sets of substrings are searched for one after the other, since building an automaton that is used
+ * only a few times would be more expensive than that.
+ */
+final class SubstringMatcher {
+
+    // bounds the number of shared automata, in case the expected errors contain generated parts
+    private static final int MAX_SHARED_MATCHERS = 1000;
+    private static final Map<SubstringsKey, SubstringMatcher> SHARED_MATCHERS = new ConcurrentHashMap<>();
+
+    private static final int ROOT = 0;
+
+    // the transitions of node i are stored in transitionChars/transitionTargets[i], sorted by character
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failureLinks;
+    // whether any substring ends at the node or at one of the nodes reachable via its failure links
+    private final boolean[] isMatch;
+    // the substrings of a matcher without an automaton, which are searched for one after the other
+    private final String[] linearSubstrings;
+
+    private SubstringMatcher(char[][] transitionChars, int[][] transitionTargets, int[] failureLinks,
+            boolean[] isMatch) {
+        this.transitionChars = transitionChars;
+        this.transitionTargets = transitionTargets;
+        this.failureLinks = failureLinks;
+        this.isMatch = isMatch;
+        this.linearSubstrings = null;
+    }
+
+    private SubstringMatcher(String[] linearSubstrings) {
+        this.transitionChars = null;
+        this.transitionTargets = null;
+        this.failureLinks = null;
+        this.isMatch = null;
+        this.linearSubstrings = linearSubstrings;
+    }
+
+    /**
+     * The key under which a shared automaton is stored. Since the substrings are typically string literals that are
+     * added in the same order each time, comparing two keys mostly compares references.
+     */
+    private static final class SubstringsKey {
+
+        private final List<String> substrings;
+        private final int hashCode;
+
+        SubstringsKey(List<String> substrings, int hashCode) {
+            this.substrings = substrings;
+            this.hashCode = hashCode;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof SubstringsKey && substrings.equals(((SubstringsKey) obj).substrings);
+        }
+
+    }
+
+    /**
+     * Returns an automaton for the given substrings, reusing a previously compiled one for the same list, if
+     * available. If no automaton is available and no further automata can be shared, a matcher that searches for the
+     * substrings one after the other is returned.
+     *
+     * @param substrings
+     *            the substrings to search for
+     * @param hashCode
+     *            the hash code of the list, as computed by {@link List#hashCode()}
+     *
+     * @return the automaton
+     */
+    static SubstringMatcher compile(List<String> substrings, int hashCode) {
+        SubstringMatcher matcher = SHARED_MATCHERS.get(new SubstringsKey(substrings, hashCode));
+        if (matcher == null) {
+            if (SHARED_MATCHERS.size() >= MAX_SHARED_MATCHERS) {
+                return new SubstringMatcher(substrings.toArray(new String[0]));
+            }
+            List<String> copy = new ArrayList<>(substrings);
+            matcher = build(copy);
+            SubstringMatcher previous = SHARED_MATCHERS.putIfAbsent(new SubstringsKey(copy, hashCode), matcher);
+            if (previous != null) {
+                matcher = previous;
+            }
+        }
+        return matcher;
+    }
+
+    static SubstringMatcher build(Collection<String> substrings) {
+        // build the trie
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Boolean> isEnd = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        isEnd.add(false);
+        for (String s : substrings) {
+            int node = ROOT;
+            for (int i = 0; i < s.length(); i++) {
+                Integer next = trie.get(node).get(s.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    isEnd.add(false);
+                    trie.get(node).put(s.charAt(i), next);
+                }
+                node = next;
+            }
+            isEnd.set(node, true);
+        }
+        int nrNodes = trie.size();
+        char[][] transitionChars = new char[nrNodes][];
+        int[][] transitionTargets = new int[nrNodes][];
+        boolean[] isMatch = new boolean[nrNodes];
+        for (int i = 0; i < nrNodes; i++) {
+            TreeMap<Character, Integer> transitions = trie.get(i);
+            transitionChars[i] = new char[transitions.size()];
+            transitionTargets[i] = new int[transitions.size()];
+            int j = 0;
+            for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+                transitionChars[i][j] = transition.getKey();
+                transitionTargets[i][j] = transition.getValue();
+                j++;
+            }
+            isMatch[i] = isEnd.get(i);
+        }
+        // compute the failure links in breadth-first order, so that the links of shallower nodes are known
+        int[] failureLinks = new int[nrNodes];
+        SubstringMatcher matcher = new SubstringMatcher(transitionChars, transitionTargets, failureLinks, isMatch);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : transitionTargets[ROOT]) {
+            failureLinks[child] = ROOT;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int j = 0; j < transitionChars[node].length; j++) {
+                int child = transitionTargets[node][j];
+                failureLinks[child] = matcher.step(failureLinks[node], transitionChars[node][j]);
+                isMatch[child] |= isMatch[failureLinks[child]];
+                queue.add(child);
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * Checks whether the text contains any of the substrings.
+     *
+     * @param text
+     *            the text to search
+     *
+     * @return true if at least one of the substrings occurs in the text
+     */
+    boolean matches(String text) {
+        if (linearSubstrings != null) {
+            for (String substring : linearSubstrings) {
+                if (text.contains(substring)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (isMatch[ROOT]) {
+            // the empty string is contained in every string
+            return true;
+        }
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            node = step(node, text.charAt(i));
+            if (isMatch[node]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int step(int node, char c) {
+        int current = node;
+        while (true) {
+            int j = Arrays.binarySearch(transitionChars[current], c);
+            if (j >= 0) {
+                return transitionTargets[current][j];
+            }
+            if (current == ROOT) {
+                return ROOT;
+            }
+            current = failureLinks[current];
+        }
+    }
+
+}
@@ -143,4 +143,85 @@ public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTa
         return databaseTables.stream().anyMatch(t -> t.getNrRows(globalState) == 0);
     }
 
+    /**
+     * Maintains the row counts cached by the tables after a statement was executed. The row count of the table
+     * modified by an INSERT, DELETE, or TRUNCATE statement is adjusted based on the update count reported by the DBMS,
+     * so that it does not have to be computed again using a SELECT COUNT(*), and the row counts of views are
+     * invalidated. If the statement might also have modified other tables (see
+     * {@link #dataModificationsCanAffectOtherTables()}), or if its effect is unknown, all row counts are invalidated.
+     *
+     * @param query
+     *            the statement that was executed
+     * @param success
+     *            whether the statement was executed successfully
+     * @param updateCount
+     *            the number of rows affected by the statement, or -1 if unknown
+     */
+    public void updateRowCounts(String query, boolean success, long updateCount) {
+        TableModification modification = TableModification.of(query);
+        if (modification.getKind() == TableModification.Kind.NONE) {
+            return;
+        }
+        A modifiedTable = null;
+        if (modification.getTableName() != null) {
+            for (A table : databaseTables) {
+                if (table.getName().equalsIgnoreCase(modification.getTableName())) {
+                    modifiedTable = table;
+                    break;
+                }
+            }
+        }
+        if (!success || modifiedTable == null || modifiedTable.isView() || dataModificationsCanAffectOtherTables()) {
+            // for example, a failing INSERT OR ROLLBACK in SQLite rolls back the whole transaction
+            databaseTables.forEach(t -> t.recomputeCount());
+            return;
+        }
+        boolean exact = modification.isUpdateCountExact() && updateCount >= 0
+                && modifiedTable.updateCountIsRowCountChange();
+        switch (modification.getKind()) {
+        case INSERT:
+            if (exact) {
+                modifiedTable.addToRowCount(updateCount);
+            } else {
+                modifiedTable.recomputeCount();
+            }
+            break;
+        case DELETE:
+            if (exact) {
+                modifiedTable.addToRowCount(-updateCount);
+            } else {
+                modifiedTable.recomputeCount();
+            }
+            break;
+        case TRUNCATE:
+            modifiedTable.setRowCount(0);
+            break;
+        case UPDATE:
+            if (!modifiedTable.updateCountIsRowCountChange()) {
+                modifiedTable.recomputeCount();
+            }
+            break;
+        default:
+            // UNKNOWN statements do not have a target table
+            throw new AssertionError(modification.getKind());
+        }
+        for (A table : databaseTables) {
+            if (table.isView()) {
+                table.recomputeCount();
+            }
+        }
+    }
+
+    /**
+     * Whether modifying the rows of one table can change the number of rows in another table, for example, due to
+     * triggers, cascading foreign keys, or table inheritance. DBMS-specific schemas can override this method to
+     * indicate that this is not the case, which allows the row counts of unrelated tables to be retained. This is
+     * typically the case for DBMSs for which SQLancer does not generate triggers or foreign keys.
+     *
+     * @return true if an INSERT, UPDATE, DELETE, or TRUNCATE statement might modify tables other than its target
+     */
+    public boolean dataModificationsCanAffectOtherTables() {
+        return true;
+    }
+
 }
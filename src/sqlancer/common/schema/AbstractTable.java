@@ -98,5 +98,27 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
         rowCount = NO_ROW_COUNT_AVAILABLE;
     }
 
+    void addToRowCount(long delta) {
+        if (rowCount != NO_ROW_COUNT_AVAILABLE) {
+            rowCount += delta;
+        }
+    }
+
+    void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Whether the update count of an INSERT or DELETE statement on this table is the number of rows by which the table
+     * grew or shrank, and an UPDATE statement leaves the number of rows unchanged. For example, this is not the case
+     * for SQLite's FTS tables, which accept special INSERT commands, or for SQLite tables whose constraints replace
+     * conflicting rows.
+     *
+     * @return true if the row count of the table can be maintained based on update counts
+     */
+    public boolean updateCountIsRowCountChange() {
+        return true;
+    }
+
     public abstract long getNrRows(G globalState);
 }
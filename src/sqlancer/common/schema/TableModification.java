@@ -0,0 +1,161 @@
+package sqlancer.common.schema;
+
+import java.util.Locale;
+
+/**
+ * Describes how a statement affects the number of rows in the tables of a database, which is used to maintain the row
+ * counts cached by {@link AbstractTable} (see {@link AbstractSchema#updateRowCounts(String, boolean, long)}). The
+ * statement is only classified based on its first keywords, so anything that is not recognized is assumed to change
+ * the row count of every table.
+ */
+final class TableModification {
+
+    enum Kind {
+        /**
+         * The statement does not modify any rows (e.g., SELECT, COMMIT, or CREATE INDEX).
+         */
+        NONE,
+        /**
+         * The statement inserts rows into the target table.
+         */
+        INSERT,
+        /**
+         * The statement updates rows of the target table without changing their number.
+         */
+        UPDATE,
+        /**
+         * The statement deletes rows from the target table.
+         */
+        DELETE,
+        /**
+         * The statement deletes all rows from the target table.
+         */
+        TRUNCATE,
+        /**
+         * The effect of the statement is unknown.
+         */
+        UNKNOWN
+    }
+
+    private static final TableModification NO_MODIFICATION = new TableModification(Kind.NONE, null, true);
+    private static final TableModification UNKNOWN_MODIFICATION = new TableModification(Kind.UNKNOWN, null, false);
+
+    private final Kind kind;
+    private final String tableName;
+    private final boolean updateCountIsExact;
+
+    private TableModification(Kind kind, String tableName, boolean updateCountIsExact) {
+        this.kind = kind;
+        this.tableName = tableName;
+        this.updateCountIsExact = updateCountIsExact;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the name of the table whose rows are modified.
+     *
+     * @return the table name, or null if the statement does not have a single target table
+     */
+    String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Whether the update count reported by the DBMS is the number of rows by which the target table grew (for INSERT)
+     * or shrank (for DELETE). This is not the case for statements such as INSERT OR REPLACE or upserts, which can also
+     * update or delete rows.
+     *
+     * @return true if the update count can be used to maintain the row count of the target table
+     */
+    boolean isUpdateCountExact() {
+        return updateCountIsExact;
+    }
+
+    static TableModification of(String query) {
+        String statement = query.trim();
+        if (statement.endsWith(";")) {
+            statement = statement.substring(0, statement.length() - 1);
+        }
+        String[] tokens = statement.split("\\s+", 8);
+        String first = tokens[0].toUpperCase(Locale.ROOT);
+        switch (first) {
+        case "SELECT":
+        case "BEGIN":
+        case "COMMIT":
+        case "END":
+        case "ANALYZE":
+            return NO_MODIFICATION;
+        case "CREATE":
+            if (keywordAt(tokens, 1, "INDEX") || keywordAt(tokens, 1, "UNIQUE") && keywordAt(tokens, 2, "INDEX")) {
+                return NO_MODIFICATION;
+            }
+            return UNKNOWN_MODIFICATION;
+        case "INSERT":
+        case "REPLACE":
+            return ofInsert(query, tokens, first.equals("INSERT"));
+        case "UPDATE":
+            // UPDATE OR REPLACE can delete rows
+            if (tokens.length < 2 || keywordAt(tokens, 1, "OR")) {
+                return UNKNOWN_MODIFICATION;
+            }
+            return new TableModification(Kind.UPDATE, getTableName(tokens[1]), true);
+        case "DELETE":
+            if (!keywordAt(tokens, 1, "FROM") || tokens.length < 3) {
+                return UNKNOWN_MODIFICATION;
+            }
+            return new TableModification(Kind.DELETE, getTableName(tokens[2]), true);
+        case "TRUNCATE":
+            String upperCaseQuery = query.toUpperCase(Locale.ROOT);
+            if (upperCaseQuery.contains(",") || upperCaseQuery.contains("CASCADE")) {
+                return UNKNOWN_MODIFICATION;
+            }
+            int tableIndex = keywordAt(tokens, 1, "TABLE") ? 2 : 1;
+            if (tokens.length <= tableIndex) {
+                return UNKNOWN_MODIFICATION;
+            }
+            return new TableModification(Kind.TRUNCATE, getTableName(tokens[tableIndex]), true);
+        default:
+            return UNKNOWN_MODIFICATION;
+        }
+    }
+
+    private static TableModification ofInsert(String query, String[] tokens, boolean isInsert) {
+        // skip modifiers such as OR IGNORE or LOW_PRIORITY
+        boolean exact = isInsert;
+        int i = 1;
+        while (i < tokens.length - 1 && !keywordAt(tokens, i, "INTO")) {
+            if (keywordAt(tokens, i, "REPLACE")) {
+                exact = false;
+            }
+            i++;
+        }
+        if (!keywordAt(tokens, i, "INTO") || i + 1 >= tokens.length) {
+            return UNKNOWN_MODIFICATION;
+        }
+        String upperCaseQuery = query.toUpperCase(Locale.ROOT);
+        if (upperCaseQuery.contains(" ON CONFLICT") || upperCaseQuery.contains(" ON DUPLICATE KEY")) {
+            exact = false;
+        }
+        return new TableModification(Kind.INSERT, getTableName(tokens[i + 1]), exact);
+    }
+
+    private static boolean keywordAt(String[] tokens, int i, String keyword) {
+        return i < tokens.length && tokens[i].equalsIgnoreCase(keyword);
+    }
+
+    private static String getTableName(String token) {
+        int end = 0;
+        while (end < token.length() && token.charAt(end) != '(' && token.charAt(end) != ';') {
+            end++;
+        }
+        String name = token.substring(0, end);
+        if (name.length() >= 2 && (name.charAt(0) == '"' || name.charAt(0) == '`')) {
+            name = name.substring(1, name.length() - 1);
+        }
+        return name;
+    }
+
+}
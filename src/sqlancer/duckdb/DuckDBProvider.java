@@ -1,12 +1,21 @@
 package sqlancer.duckdb;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.stream.Stream;
 
 import sqlancer.AbstractAction;
+import sqlancer.DatabaseSnapshot;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
+import sqlancer.SQLDatabaseSnapshot;
 import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
@@ -91,6 +100,12 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
             return DuckDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        protected int getDefaultStatementTimeoutSeconds() {
+            // the driver does not support cancelling statements
+            return 0;
+        }
+
     }
 
     @Override
@@ -121,6 +136,48 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
                 globalState.getOptions().getPassword()));
     }
 
+    @Override
+    public DatabaseSnapshot<SQLConnection> createSnapshot(DuckDBGlobalState globalState) throws Exception {
+        Path directory = Files.createTempDirectory(globalState.getDatabaseName() + "_snapshot");
+        String path = directory.toFile().getAbsolutePath().replace("'", "''");
+        try (Statement s = globalState.getConnection().createStatement()) {
+            s.execute("EXPORT DATABASE '" + path + "'");
+        } catch (SQLException e) {
+            deleteDirectory(directory);
+            return null;
+        }
+        String userName = globalState.getOptions().getUserName();
+        String password = globalState.getOptions().getPassword();
+        return new SQLDatabaseSnapshot(globalState, "PRAGMA") {
+
+            @Override
+            protected SQLConnection copyDatabase(String cloneName) throws Exception {
+                // each connection to an in-memory DuckDB database refers to a new, empty database
+                Connection con = DriverManager.getConnection("jdbc:duckdb:", userName, password);
+                try (Statement s = con.createStatement()) {
+                    s.execute("IMPORT DATABASE '" + path + "'");
+                } catch (SQLException e) {
+                    // the exported schema of some views cannot be imported again
+                    con.close();
+                    throw new IgnoreMeException();
+                }
+                return new SQLConnection(con);
+            }
+
+            @Override
+            public void close() throws Exception {
+                deleteDirectory(directory);
+            }
+
+        };
+    }
+
+    private static void deleteDirectory(Path directory) throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
     @Override
     public String getDBMSName() {
         return "duckdb";
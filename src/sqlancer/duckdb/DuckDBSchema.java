@@ -149,6 +149,11 @@ public class DuckDBSchema extends AbstractSchema<DuckDBGlobalState, DuckDBTable>
         super(databaseTables);
     }
 
+    @Override
+    public boolean dataModificationsCanAffectOtherTables() {
+        return false;
+    }
+
     public DuckDBTables getRandomTableNonEmptyTables() {
         return new DuckDBTables(Randomly.nonEmptySubset(getDatabaseTables()));
     }
@@ -6,6 +6,7 @@ import java.sql.Statement;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
@@ -120,12 +121,21 @@ public class DuckDBNoRECOracle extends NoRECBase<DuckDBGlobalState> implements T
         int firstCount = 0;
         try (Statement stat = con.createStatement()) {
             optimizedQueryString = DuckDBToStringVisitor.asString(select);
+            String countQuery = getFoldedCountQuery(optimizedQueryString, columns.size());
+            if (countQuery != null) {
+                optimizedQueryString = countQuery;
+            }
             if (options.logEachSelect()) {
                 logger.writeCurrent(optimizedQueryString);
             }
             try (ResultSet rs = stat.executeQuery(optimizedQueryString)) {
-                while (rs.next()) {
-                    firstCount++;
+                if (countQuery != null) {
+                    rs.next();
+                    firstCount = rs.getInt(1);
+                } else {
+                    while (rs.next()) {
+                        firstCount++;
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -134,4 +144,11 @@ public class DuckDBNoRECOracle extends NoRECBase<DuckDBGlobalState> implements T
         return firstCount;
     }
 
+    @Override
+    protected String getCountQuery(String optimizedQuery, int nrColumns) {
+        // the columns of a derived table must have unique names, which those of different tables might not have
+        String columnNames = IntStream.range(0, nrColumns).mapToObj(i -> "c" + i).collect(Collectors.joining(", "));
+        return "SELECT COUNT(*) FROM (" + optimizedQuery + ") AS res(" + columnNames + ")";
+    }
+
 }
@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-import sqlancer.ComparatorHelper;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.common.ast.newast.NewAliasNode;
@@ -15,6 +14,7 @@ import sqlancer.common.ast.newast.NewUnaryPostfixOperatorNode;
 import sqlancer.common.ast.newast.NewUnaryPrefixOperatorNode;
 import sqlancer.common.ast.newast.Node;
 import sqlancer.common.oracle.TestOracle;
+import sqlancer.common.query.ColumnarResult;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.duckdb.DuckDBErrors;
@@ -32,8 +32,8 @@ import sqlancer.duckdb.gen.DuckDBExpressionGenerator.DuckDBUnaryPrefixOperator;
 
 public class DuckDBQueryPartitioningAggregateTester extends DuckDBQueryPartitioningBase implements TestOracle {
 
-    private String firstResult;
-    private String secondResult;
+    private ColumnarResult firstResult;
+    private ColumnarResult secondResult;
     private String originalQuery;
     private String metamorphicQuery;
 
@@ -66,10 +66,8 @@ public class DuckDBQueryPartitioningAggregateTester extends DuckDBQueryPartition
 
         state.getState().getLocalState().log(
                 "--" + originalQuery + ";\n--" + metamorphicQuery + "\n-- " + firstResult + "\n-- " + secondResult);
-        if (firstResult == null && secondResult != null
-                || firstResult != null && (!firstResult.contentEquals(secondResult)
-                        && !ComparatorHelper.isEqualDouble(firstResult, secondResult))) {
-            if (secondResult.contains("Inf")) {
+        if (!firstResult.rowsEqual(secondResult)) {
+            if (secondResult.toString().contains("Inf")) {
                 throw new IgnoreMeException(); // FIXME: average computation
             }
             throw new AssertionError();
@@ -97,19 +95,15 @@ public class DuckDBQueryPartitioningAggregateTester extends DuckDBQueryPartition
         return metamorphicQuery;
     }
 
-    private String getAggregateResult(String queryString) throws SQLException {
-        String resultString;
+    private ColumnarResult getAggregateResult(String queryString) throws SQLException {
+        ColumnarResult aggregateResult;
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors);
         try (SQLancerResultSet result = q.executeAndGet(state)) {
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            if (!result.next()) {
-                resultString = null;
-            } else {
-                resultString = result.getString(1);
-            }
-            return resultString;
+            aggregateResult = ColumnarResult.fetch(result);
+            return aggregateResult;
         } catch (SQLException e) {
             if (!e.getMessage().contains("Not implemented type")) {
                 throw new AssertionError(queryString, e);
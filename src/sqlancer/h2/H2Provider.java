@@ -1,13 +1,18 @@
 package sqlancer.h2;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 import sqlancer.AbstractAction;
+import sqlancer.DatabaseSnapshot;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
+import sqlancer.SQLDatabaseSnapshot;
 import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
@@ -95,12 +100,44 @@ public class H2Provider extends SQLProviderAdapter<H2GlobalState, H2Options> {
 
     @Override
     public SQLConnection createDatabase(H2GlobalState globalState) throws SQLException {
-        String connectionString = "jdbc:h2:~/" + globalState.getDatabaseName() + ";DB_CLOSE_ON_EXIT=FALSE";
+        return new SQLConnection(createDatabase(globalState.getDatabaseName()));
+    }
+
+    private static Connection createDatabase(String databaseName) throws SQLException {
+        String connectionString = "jdbc:h2:~/" + databaseName + ";DB_CLOSE_ON_EXIT=FALSE";
         Connection connection = DriverManager.getConnection(connectionString, "sa", "");
         connection.createStatement().execute("DROP ALL OBJECTS DELETE FILES");
         connection.close();
-        connection = DriverManager.getConnection(connectionString, "sa", "");
-        return new SQLConnection(connection);
+        return DriverManager.getConnection(connectionString, "sa", "");
+    }
+
+    @Override
+    public DatabaseSnapshot<SQLConnection> createSnapshot(H2GlobalState globalState) throws Exception {
+        File script = File.createTempFile(globalState.getDatabaseName() + "_snapshot", ".sql");
+        try (Statement s = globalState.getConnection().createStatement()) {
+            s.execute("SCRIPT TO '" + script.getAbsolutePath().replace("'", "''") + "'");
+        }
+        return new SQLDatabaseSnapshot(globalState, "SET") {
+
+            @Override
+            protected SQLConnection copyDatabase(String cloneName) throws Exception {
+                Connection con = createDatabase(cloneName);
+                try (Statement s = con.createStatement()) {
+                    s.execute("RUNSCRIPT FROM '" + script.getAbsolutePath().replace("'", "''") + "'");
+                } catch (SQLException e) {
+                    // the script that H2 generates for some views cannot be parsed
+                    con.close();
+                    throw new IgnoreMeException();
+                }
+                return new SQLConnection(con);
+            }
+
+            @Override
+            public void close() throws Exception {
+                Files.deleteIfExists(script.toPath());
+            }
+
+        };
     }
 
     @Override
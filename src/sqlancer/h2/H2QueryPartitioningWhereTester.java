@@ -6,6 +6,7 @@ import java.util.List;
 
 import sqlancer.ComparatorHelper;
 import sqlancer.Randomly;
+import sqlancer.common.query.MultisetHash;
 import sqlancer.h2.H2Provider.H2GlobalState;
 
 public class H2QueryPartitioningWhereTester extends H2QueryPartitioningBase {
@@ -20,7 +21,7 @@ public class H2QueryPartitioningWhereTester extends H2QueryPartitioningBase {
         select.setWhereClause(null);
         String originalQueryString = H2ToStringVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
 
         boolean orderBy = Randomly.getBooleanWithRatherLowProbability();
         if (orderBy) {
@@ -33,10 +34,10 @@ public class H2QueryPartitioningWhereTester extends H2QueryPartitioningBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = H2ToStringVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
                 thirdQueryString, combinedString, !orderBy, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 
 }
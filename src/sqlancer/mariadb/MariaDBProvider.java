@@ -10,6 +10,7 @@ import java.util.List;
 import sqlancer.IgnoreMeException;
 import sqlancer.MainOptions;
 import sqlancer.Randomly;
+import sqlancer.ResultStreaming;
 import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
@@ -164,23 +165,27 @@ public class MariaDBProvider extends SQLProviderAdapter<MariaDBGlobalState, Mari
 
     @Override
     public SQLConnection createDatabase(MariaDBGlobalState globalState) throws SQLException {
+        // /?serverTimezone=UTC&useSSL=false&allowPublicKeyRetrieval=true
+        String url = "jdbc:mariadb://localhost:3306";
+        String username = globalState.getOptions().getUserName();
+        String password = globalState.getOptions().getPassword();
+        Connection con = DatabasePool.getDatabase(globalState, databaseName -> {
+            Connection c = DriverManager.getConnection(url, username, password);
+            try (Statement s = c.createStatement()) {
+                s.execute("DROP DATABASE IF EXISTS " + databaseName);
+            }
+            try (Statement s = c.createStatement()) {
+                s.execute("CREATE DATABASE " + databaseName);
+            }
+            try (Statement s = c.createStatement()) {
+                s.execute("USE " + databaseName);
+            }
+            return c;
+        });
         globalState.getState().logStatement("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
         globalState.getState().logStatement("CREATE DATABASE " + globalState.getDatabaseName());
         globalState.getState().logStatement("USE " + globalState.getDatabaseName());
-        // /?serverTimezone=UTC&useSSL=false&allowPublicKeyRetrieval=true
-        String url = "jdbc:mariadb://localhost:3306";
-        Connection con = DriverManager.getConnection(url, globalState.getOptions().getUserName(),
-                globalState.getOptions().getPassword());
-        try (Statement s = con.createStatement()) {
-            s.execute("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute("CREATE DATABASE " + globalState.getDatabaseName());
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute("USE " + globalState.getDatabaseName());
-        }
-        return new SQLConnection(con);
+        return new SQLConnection(con, ResultStreaming.FETCH_SIZE, globalState.getOptions().getFetchSize());
     }
 
     @Override
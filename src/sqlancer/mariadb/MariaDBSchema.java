@@ -242,4 +242,9 @@ public class MariaDBSchema extends AbstractSchema<MariaDBGlobalState, MariaDBTab
         super(databaseTables);
     }
 
+    @Override
+    public boolean dataModificationsCanAffectOtherTables() {
+        return false;
+    }
+
 }
@@ -1,7 +1,10 @@
-
 package sqlancer.mysql;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
 
 import sqlancer.SQLGlobalState;
 import sqlancer.mysql.MySQLOptions.MySQLOracleFactory;
@@ -17,4 +20,27 @@ public class MySQLGlobalState extends SQLGlobalState<MySQLOptions, MySQLSchema>
         return getDmbsSpecificOptions().oracles.stream().anyMatch(o -> o == MySQLOracleFactory.PQS);
     }
 
+    @Override
+    protected long getEstimatedCardinality(String query) throws SQLException {
+        // the tables of a SELECT are joined using nested loops, so the estimated rows of its tables are multiplied
+        Map<Long, Double> rowsPerSelect = new HashMap<>();
+        try (Statement s = getConnection().createStatement();
+                ResultSet rs = s.executeQuery(getExplainStatement(query))) {
+            while (rs.next()) {
+                long id = rs.getLong("id");
+                double rows = rs.getDouble("rows");
+                if (rs.wasNull()) {
+                    rows = 1;
+                }
+                double filtered = rs.getDouble("filtered");
+                if (!rs.wasNull()) {
+                    rows = Math.max(1, rows * filtered / 100);
+                }
+                rowsPerSelect.merge(id, rows, (a, b) -> a * b);
+            }
+        }
+        // the conversion saturates at Long.MAX_VALUE
+        return (long) Math.ceil(rowsPerSelect.values().stream().mapToDouble(d -> d).max().orElse(-1));
+    }
+
 }
@@ -6,8 +6,10 @@ import java.sql.SQLException;
 import java.sql.Statement;
 
 import sqlancer.AbstractAction;
+import sqlancer.DatabasePool;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
+import sqlancer.ResultStreaming;
 import sqlancer.SQLConnection;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
@@ -149,23 +151,27 @@ public class MySQLProvider extends SQLProviderAdapter<MySQLGlobalState, MySQLOpt
 
     @Override
     public SQLConnection createDatabase(MySQLGlobalState globalState) throws SQLException {
+        String url = "jdbc:mysql://localhost:3306/?serverTimezone=UTC&useSSL=false&allowPublicKeyRetrieval=true";
+        String username = globalState.getOptions().getUserName();
+        String password = globalState.getOptions().getPassword();
+        Connection con = DatabasePool.getDatabase(globalState, databaseName -> {
+            Connection c = DriverManager.getConnection(url, username, password);
+            try (Statement s = c.createStatement()) {
+                s.execute("DROP DATABASE IF EXISTS " + databaseName);
+            }
+            try (Statement s = c.createStatement()) {
+                s.execute("CREATE DATABASE " + databaseName);
+            }
+            try (Statement s = c.createStatement()) {
+                s.execute("USE " + databaseName);
+            }
+            return c;
+        });
         String databaseName = globalState.getDatabaseName();
         globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
         globalState.getState().logStatement("CREATE DATABASE " + databaseName);
         globalState.getState().logStatement("USE " + databaseName);
-        String url = "jdbc:mysql://localhost:3306/?serverTimezone=UTC&useSSL=false&allowPublicKeyRetrieval=true";
-        Connection con = DriverManager.getConnection(url, globalState.getOptions().getUserName(),
-                globalState.getOptions().getPassword());
-        try (Statement s = con.createStatement()) {
-            s.execute("DROP DATABASE IF EXISTS " + databaseName);
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute("CREATE DATABASE " + databaseName);
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute("USE " + databaseName);
-        }
-        return new SQLConnection(con);
+        return new SQLConnection(con, ResultStreaming.ROW_BY_ROW, globalState.getOptions().getFetchSize());
     }
 
     @Override
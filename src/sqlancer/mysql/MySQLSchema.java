@@ -292,6 +292,11 @@ public class MySQLSchema extends AbstractSchema<MySQLGlobalState, MySQLTable> {
         super(databaseTables);
     }
 
+    @Override
+    public boolean dataModificationsCanAffectOtherTables() {
+        return false;
+    }
+
     public MySQLTables getRandomTableNonEmptyTables() {
         return new MySQLTables(Randomly.nonEmptySubset(getDatabaseTables()));
     }
@@ -7,6 +7,7 @@ import java.util.List;
 
 import sqlancer.ComparatorHelper;
 import sqlancer.Randomly;
+import sqlancer.common.query.MultisetHash;
 import sqlancer.mysql.MySQLGlobalState;
 import sqlancer.mysql.MySQLVisitor;
 
@@ -22,7 +23,7 @@ public class MySQLTLPWhereOracle extends MySQLQueryPartitioningBase {
         select.setWhereClause(null);
         String originalQueryString = MySQLVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        MultisetHash resultSet = ComparatorHelper.getResultSetFirstColumnHash(originalQueryString, errors, state);
 
         if (Randomly.getBoolean()) {
             select.setOrderByExpressions(gen.generateOrderBys());
@@ -35,10 +36,10 @@ public class MySQLTLPWhereOracle extends MySQLQueryPartitioningBase {
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = MySQLVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
+        MultisetHash secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
                 thirdQueryString, combinedString, Randomly.getBoolean(), state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state);
+                state, errors);
     }
 
 }
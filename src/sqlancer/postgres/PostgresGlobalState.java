@@ -9,10 +9,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
+import sqlancer.common.query.Query;
 
 public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, PostgresSchema> {
 
@@ -20,6 +22,9 @@ public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, Postgre
     public static final char STABLE = 's';
     public static final char VOLATILE = 'v';
 
+    // for example, "Hash Join  (cost=60.85..1284.22 rows=64770 width=8)"
+    private static final Pattern ESTIMATED_ROWS = Pattern.compile("rows=(\\d+)");
+
     private List<String> operators = Collections.emptyList();
     private List<String> collates = Collections.emptyList();
     private List<String> opClasses = Collections.emptyList();
@@ -39,6 +44,19 @@ public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, Postgre
         }
     }
 
+    @Override
+    protected String getQueryPlan(Query<?> q) {
+        try {
+            // a failing EXPLAIN would abort the transaction, so that all subsequent statements fail
+            if (!getConnection().isIdle()) {
+                return null;
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+        return super.getQueryPlan(q);
+    }
+
     private List<String> getCollnames(SQLConnection con) throws SQLException {
         List<String> opClasses = new ArrayList<>();
         try (Statement s = con.createStatement()) {
@@ -125,4 +143,9 @@ public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, Postgre
         return this.allowedFunctionTypes;
     }
 
+    @Override
+    protected long getEstimatedCardinality(String query) throws SQLException {
+        return getMaxEstimate(getExplainOutput(query), ESTIMATED_ROWS);
+    }
+
 }
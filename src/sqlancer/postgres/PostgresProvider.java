@@ -4,14 +4,22 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
 
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.TransactionState;
+
 import sqlancer.AbstractAction;
+import sqlancer.DatabasePool;
+import sqlancer.DatabaseSnapshot;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
+import sqlancer.ResultStreaming;
 import sqlancer.SQLConnection;
+import sqlancer.SQLDatabaseSnapshot;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.DBMSCommon;
@@ -62,6 +70,22 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
         super(PostgresGlobalState.class, PostgresOptions.class);
     }
 
+    /**
+     * Checks whether no transaction is open on a pgjdbc connection (see {@link SQLConnection#isIdle()}).
+     *
+     * @param con
+     *            the JDBC connection
+     *
+     * @return true if pgjdbc reports that no transaction is open
+     *
+     * @throws SQLException
+     *             if the connection cannot be unwrapped
+     */
+    public static boolean isIdle(Connection con) throws SQLException {
+        return con.isWrapperFor(BaseConnection.class)
+                && con.unwrap(BaseConnection.class).getTransactionState() == TransactionState.IDLE;
+    }
+
     protected PostgresProvider(Class<PostgresGlobalState> globalClass, Class<PostgresOptions> optionClass) {
         super(globalClass, optionClass);
     }
@@ -233,26 +257,79 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
             throw new AssertionError(e);
         }
         String entryDatabaseName = entryPath.substring(1);
+        // pooled databases are created before the database is generated, so their settings cannot be chosen randomly
+        String createDatabaseOptions = globalState.getOptions().getDatabasePoolSize() == 0
+                ? getCreateDatabaseOptions(globalState) : "";
+        String user = username;
+        String pass = password;
+        String url = entryURL;
+        Connection con = DatabasePool.getDatabase(globalState, name -> {
+            try (Connection c = DriverManager.getConnection("jdbc:" + url, user, pass)) {
+                try (Statement s = c.createStatement()) {
+                    s.execute("DROP DATABASE IF EXISTS " + name);
+                }
+                try (Statement s = c.createStatement()) {
+                    s.execute("CREATE DATABASE " + name + " " + createDatabaseOptions);
+                }
+            }
+            return DriverManager.getConnection("jdbc:" + getDatabaseURL(name), user, pass);
+        });
         databaseName = globalState.getDatabaseName();
-        Connection con = DriverManager.getConnection("jdbc:" + entryURL, username, password);
+        createDatabaseCommand = "CREATE DATABASE " + databaseName + " " + createDatabaseOptions;
         globalState.getState().logStatement(String.format("\\c %s;", entryDatabaseName));
         globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
-        createDatabaseCommand = getCreateDatabaseCommand(globalState);
         globalState.getState().logStatement(createDatabaseCommand);
-        try (Statement s = con.createStatement()) {
-            s.execute("DROP DATABASE IF EXISTS " + databaseName);
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute(createDatabaseCommand);
-        }
-        con.close();
+        testURL = getDatabaseURL(databaseName);
+        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
+        return new SQLConnection(con, ResultStreaming.CURSOR, globalState.getOptions().getFetchSize(),
+                PostgresProvider::isIdle);
+    }
+
+    private String getDatabaseURL(String name) {
         int databaseIndex = entryURL.indexOf(entryPath) + 1;
         String preDatabaseName = entryURL.substring(0, databaseIndex);
-        String postDatabaseName = entryURL.substring(databaseIndex + entryDatabaseName.length());
-        testURL = preDatabaseName + databaseName + postDatabaseName;
-        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
-        con = DriverManager.getConnection("jdbc:" + testURL, username, password);
-        return new SQLConnection(con);
+        String postDatabaseName = entryURL.substring(databaseIndex + entryPath.length() - 1);
+        return preDatabaseName + name + postDatabaseName;
+    }
+
+    @Override
+    public DatabaseSnapshot<SQLConnection> createSnapshot(PostgresGlobalState globalState) throws Exception {
+        try (Statement s = globalState.getConnection().createStatement();
+                ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM pg_class WHERE relpersistence = 't'")) {
+            rs.next();
+            if (rs.getInt(1) != 0) {
+                // temporary tables and sequences are dropped at the end of the session
+                return null;
+            }
+        }
+        // a database can only be used as a template while no other session is connected to it
+        globalState.getConnection().close();
+        int fetchSize = globalState.getOptions().getFetchSize();
+        return new SQLDatabaseSnapshot(globalState, "SET") {
+
+            @Override
+            protected SQLConnection copyDatabase(String cloneName) throws Exception {
+                try (Connection con = DriverManager.getConnection("jdbc:" + entryURL, username, password);
+                        Statement s = con.createStatement()) {
+                    s.execute("DROP DATABASE IF EXISTS " + cloneName);
+                    s.execute("CREATE DATABASE " + cloneName + " TEMPLATE " + databaseName);
+                } catch (SQLException e) {
+                    if (e.getMessage().contains("is being accessed by other users")) {
+                        // for example, by an autovacuum worker
+                        throw new IgnoreMeException();
+                    }
+                    throw e;
+                }
+                Connection con = DriverManager.getConnection("jdbc:" + getDatabaseURL(cloneName), username, password);
+                return new SQLConnection(con, ResultStreaming.CURSOR, fetchSize, PostgresProvider::isIdle);
+            }
+
+            @Override
+            public void close() {
+                // the generated database, which serves as the template, is kept like the copies
+            }
+
+        };
     }
 
     protected void readFunctions(PostgresGlobalState globalState) throws SQLException {
@@ -290,9 +367,8 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
         globalState.executeStatement(new SQLQueryAdapter("SET SESSION statement_timeout = 5000;\n"));
     }
 
-    private String getCreateDatabaseCommand(PostgresGlobalState state) {
+    private String getCreateDatabaseOptions(PostgresGlobalState state) {
         StringBuilder sb = new StringBuilder();
-        sb.append("CREATE DATABASE " + databaseName + " ");
         if (Randomly.getBoolean() && ((PostgresOptions) state.getDmbsSpecificOptions()).testCollations) {
             if (Randomly.getBoolean()) {
                 sb.append("WITH ENCODING '");
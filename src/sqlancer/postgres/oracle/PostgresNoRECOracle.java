@@ -10,6 +10,8 @@ import java.util.stream.Collectors;
 
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
+import sqlancer.StatementWatchdog;
+import sqlancer.StatementWatchdog.WatchedStatement;
 import sqlancer.common.oracle.NoRECBase;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.query.SQLQueryAdapter;
@@ -118,6 +120,7 @@ public class PostgresNoRECOracle extends NoRECBase<PostgresGlobalState> implemen
         if (options.logEachSelect()) {
             logger.writeCurrent(unoptimizedQueryString);
         }
+        state.checkEstimatedCardinality(unoptimizedQueryString);
         errors.add("canceling statement due to statement timeout");
         SQLQueryAdapter q = new SQLQueryAdapter(unoptimizedQueryString, errors);
         SQLancerResultSet rs;
@@ -149,20 +152,47 @@ public class PostgresNoRECOracle extends NoRECBase<PostgresGlobalState> implemen
         select.setSelectType(SelectType.ALL);
         select.setJoinClauses(joinStatements);
         int firstCount = 0;
-        try (Statement stat = con.createStatement()) {
+        // the rows are only counted, so they can be streamed rather than buffered
+        Statement stat = con.acquireStreamingStatement();
+        boolean success = false;
+        try {
             optimizedQueryString = PostgresVisitor.asString(select);
+            String countQuery = getFoldedCountQuery(optimizedQueryString, 1);
+            if (countQuery != null) {
+                optimizedQueryString = countQuery;
+            }
             if (options.logEachSelect()) {
                 logger.writeCurrent(optimizedQueryString);
             }
-            try (ResultSet rs = stat.executeQuery(optimizedQueryString)) {
-                while (rs.next()) {
-                    firstCount++;
+            try (WatchedStatement watchedStatement = StatementWatchdog.watch(stat, optimizedQueryString, state)) {
+                try (ResultSet rs = stat.executeQuery(optimizedQueryString)) {
+                    if (countQuery != null) {
+                        rs.next();
+                        firstCount = rs.getInt(1);
+                    } else {
+                        while (rs.next()) {
+                            firstCount++;
+                        }
+                    }
+                } catch (SQLException e) {
+                    // reports a potential hang
+                    watchedStatement.wasCancelled();
+                    throw e;
                 }
             }
+            success = true;
         } catch (SQLException e) {
             throw new IgnoreMeException();
+        } finally {
+            con.releaseStreamingStatement(stat, success);
         }
         return firstCount;
     }
 
+    @Override
+    protected String getCountQuery(String optimizedQuery, int nrColumns) {
+        // subqueries with an OFFSET are not pulled up into the outer query
+        return "SELECT COUNT(*) FROM (" + optimizedQuery + " OFFSET 0) AS res";
+    }
+
 }
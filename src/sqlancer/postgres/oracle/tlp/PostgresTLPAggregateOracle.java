@@ -1,6 +1,5 @@
 package sqlancer.postgres.oracle.tlp;
 
-import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -8,10 +7,10 @@ import java.util.List;
 
 import org.postgresql.util.PSQLException;
 
-import sqlancer.ComparatorHelper;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.common.oracle.TestOracle;
+import sqlancer.common.query.ColumnarResult;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.postgres.PostgresGlobalState;
@@ -31,8 +30,8 @@ import sqlancer.postgres.gen.PostgresCommon;
 
 public class PostgresTLPAggregateOracle extends PostgresTLPBase implements TestOracle {
 
-    private String firstResult;
-    private String secondResult;
+    private ColumnarResult firstResult;
+    private ColumnarResult secondResult;
     private String originalQuery;
     private String metamorphicQuery;
 
@@ -72,10 +71,8 @@ public class PostgresTLPAggregateOracle extends PostgresTLPBase implements TestO
         String firstQueryString = String.format(queryFormatString, originalQuery, firstResult);
         String secondQueryString = String.format(queryFormatString, metamorphicQuery, secondResult);
         state.getState().getLocalState().log(String.format("%s\n%s", firstQueryString, secondQueryString));
-        if (firstResult == null && secondResult != null || firstResult != null && secondResult == null
-                || firstResult != null && !firstResult.contentEquals(secondResult)
-                        && !ComparatorHelper.isEqualDouble(firstResult, secondResult)) {
-            if (secondResult != null && secondResult.contains("Inf")) {
+        if (!firstResult.rowsEqual(secondResult)) {
+            if (secondResult.toString().contains("Inf")) {
                 throw new IgnoreMeException(); // FIXME: average computation
             }
             String assertionMessage = String.format("the results mismatch!\n%s\n%s", firstQueryString,
@@ -101,33 +98,22 @@ public class PostgresTLPAggregateOracle extends PostgresTLPBase implements TestO
         return metamorphicQuery;
     }
 
-    private String getAggregateResult(String queryString) throws SQLException {
+    private ColumnarResult getAggregateResult(String queryString) throws SQLException {
         // log TLP Aggregate SELECT queries on the current log file
         if (state.getOptions().logEachSelect()) {
-            // TODO: refactor me
             state.getLogger().writeCurrent(queryString);
-            try {
-                state.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
         }
-        String resultString;
+        ColumnarResult aggregateResult;
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors);
         try (SQLancerResultSet result = q.executeAndGet(state)) {
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            if (!result.next()) {
-                resultString = null;
-            } else {
-                resultString = result.getString(1);
-            }
+            aggregateResult = ColumnarResult.fetch(result);
         } catch (PSQLException e) {
             throw new AssertionError(queryString, e);
         }
-        return resultString;
+        return aggregateResult;
     }
 
     private List<PostgresExpression> mapped(PostgresAggregate aggregate) {
@@ -1,9 +1,18 @@
 package sqlancer.sqlite3;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import sqlancer.IgnoreMeException;
 import sqlancer.SQLGlobalState;
 import sqlancer.sqlite3.schema.SQLite3Schema;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
 
 public class SQLite3GlobalState extends SQLGlobalState<SQLite3Options, SQLite3Schema> {
 
@@ -12,4 +21,87 @@ public class SQLite3GlobalState extends SQLGlobalState<SQLite3Options, SQLite3Sc
         return SQLite3Schema.fromConnection(this);
     }
 
+    @Override
+    protected long getSchemaVersion() {
+        // temporary tables are stored in a separate schema, which has its own schema cookie
+        try (Statement s = getConnection().createStatement()) {
+            return getSchemaCookie(s, "main") << 32 | getSchemaCookie(s, "temp");
+        } catch (SQLException e) {
+            return NO_SCHEMA_VERSION;
+        }
+    }
+
+    private static long getSchemaCookie(Statement s, String schemaName) throws SQLException {
+        try (ResultSet rs = s.executeQuery("PRAGMA " + schemaName + ".schema_version")) {
+            rs.next();
+            return rs.getLong(1) & 0xffffffffL;
+        }
+    }
+
+    @Override
+    protected String getExplainStatement(String query) {
+        // plain EXPLAIN would list the bytecode of the statement
+        return "EXPLAIN QUERY PLAN " + query;
+    }
+
+    @Override
+    protected long getEstimatedCardinality(String query) throws SQLException {
+        // EXPLAIN QUERY PLAN does not include estimates, so they are derived from the row counts of the scanned tables
+        Map<Integer, String> details = new HashMap<>();
+        Map<Integer, List<Integer>> children = new HashMap<>();
+        try (Statement s = getConnection().createStatement();
+                ResultSet rs = s.executeQuery(getExplainStatement(query))) {
+            while (rs.next()) {
+                int id = rs.getInt("id");
+                details.put(id, rs.getString("detail"));
+                children.computeIfAbsent(rs.getInt("parent"), parent -> new ArrayList<>()).add(id);
+            }
+        }
+        return estimateRows(0, false, details, children);
+    }
+
+    // the nested loops of a query are siblings in the plan, while subqueries and compound queries are subtrees
+    private long estimateRows(int parent, boolean isCompound, Map<Integer, String> details,
+            Map<Integer, List<Integer>> children) {
+        long loopRows = 1;
+        long subqueryRows = 0;
+        for (int id : children.getOrDefault(parent, Collections.emptyList())) {
+            String detail = details.get(id);
+            long rows = estimateRows(id, detail.startsWith("COMPOUND"), details, children);
+            if (isCompound) {
+                subqueryRows = rows > Long.MAX_VALUE - subqueryRows ? Long.MAX_VALUE : subqueryRows + rows;
+            } else {
+                subqueryRows = Math.max(subqueryRows, rows);
+                loopRows = multiplySaturated(loopRows, getScannedRows(detail));
+            }
+        }
+        return isCompound ? subqueryRows : Math.max(loopRows, subqueryRows);
+    }
+
+    private long getScannedRows(String detail) {
+        // SEARCH uses an index, which is assumed to be selective
+        if (!detail.startsWith("SCAN ")) {
+            return 1;
+        }
+        // "SCAN t0", or "SCAN TABLE t0" in older versions
+        String[] words = detail.split(" ");
+        String tableName = words[1].equals("TABLE") && words.length > 2 ? words[2] : words[1];
+        SQLite3Table table = getSchema().getDatabaseTable(tableName);
+        if (table == null || table.isView() || table.isVirtual()) {
+            return 1;
+        }
+        try {
+            return table.getNrRows(this);
+        } catch (IgnoreMeException e) {
+            return 1;
+        }
+    }
+
+    private static long multiplySaturated(long a, long b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        return a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+
 }
@@ -82,6 +82,12 @@ public class SQLite3Options implements DBMSSpecificOptions<SQLite3OracleFactory>
             "--delete-existing-databases" }, description = "Delete a database file if it already exists", arity = 1)
     public boolean deleteIfExists = true;
 
+    @Parameter(names = "--storage", description = "Where the databases are stored: DISK (in ./databases), MEMORY (a private in-memory database), SHARED_MEMORY (a named in-memory database that other connections in the process can open), or TMPFS (in --tmpfs-directory). Databases that are not stored in ./databases are saved there if a bug is found")
+    public SQLite3StorageMode storage = SQLite3StorageMode.DISK;
+
+    @Parameter(names = "--tmpfs-directory", description = "The directory in which the databases are stored for --storage TMPFS, which should be backed by memory")
+    public String tmpfsDirectory = "/dev/shm";
+
     @Parameter(names = {
             "--generate-new-database" }, description = "Specifies whether new databases should be generated", arity = 1)
     public boolean generateDatabase = true;
@@ -90,6 +96,10 @@ public class SQLite3Options implements DBMSSpecificOptions<SQLite3OracleFactory>
             "--execute-queries" }, description = "Specifies whether the query in the fuzzer should be executed", arity = 1)
     public boolean executeQuery = true;
 
+    public enum SQLite3StorageMode {
+        DISK, MEMORY, SHARED_MEMORY, TMPFS
+    }
+
     public enum SQLite3OracleFactory implements OracleFactory<SQLite3GlobalState> {
         PQS {
             @Override
@@ -1,16 +1,23 @@
 package sqlancer.sqlite3;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import sqlancer.AbstractAction;
+import sqlancer.DatabaseSnapshot;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
+import sqlancer.SQLDatabaseSnapshot;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.DBMSCommon;
@@ -18,6 +25,7 @@ import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.sqlite3.SQLite3Options.SQLite3OracleFactory;
+import sqlancer.sqlite3.SQLite3Options.SQLite3StorageMode;
 import sqlancer.sqlite3.gen.SQLite3AnalyzeGenerator;
 import sqlancer.sqlite3.gen.SQLite3CreateVirtualRtreeTabelGenerator;
 import sqlancer.sqlite3.gen.SQLite3ExplainGenerator;
@@ -45,6 +53,7 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
     public static boolean allowFloatingPointFp = true;
     public static boolean mustKnowResult;
 
+    private static final File DATABASE_DIRECTORY = new File("." + File.separator + "databases");
     // PRAGMAS to achieve good performance
     private static final List<String> DEFAULT_PRAGMAS = Arrays.asList("PRAGMA cache_size = 50000;",
             "PRAGMA temp_store=MEMORY;", "PRAGMA synchronous=off;");
@@ -271,16 +280,131 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
 
     @Override
     public SQLConnection createDatabase(SQLite3GlobalState globalState) throws SQLException {
-        File dir = new File("." + File.separator + "databases");
+        SQLite3Options options = globalState.getDmbsSpecificOptions();
+        File dir = getDatabaseDirectory(options);
+        String url;
+        if (dir == null) {
+            url = getInMemoryURL(options, globalState.getDatabaseName());
+        } else {
+            url = "jdbc:sqlite:" + getDatabaseFile(dir, globalState).getAbsolutePath();
+        }
+        return new SQLConnection(DriverManager.getConnection(url));
+    }
+
+    private static File getDatabaseDirectory(SQLite3Options options) {
+        switch (options.storage) {
+        case DISK:
+            return DATABASE_DIRECTORY;
+        case TMPFS:
+            return new File(options.tmpfsDirectory);
+        case MEMORY:
+        case SHARED_MEMORY:
+            return null;
+        default:
+            throw new AssertionError(options.storage);
+        }
+    }
+
+    private static String getInMemoryURL(SQLite3Options options, String databaseName) {
+        if (options.storage == SQLite3StorageMode.SHARED_MEMORY) {
+            // the database is freed when the last connection to it is closed
+            return "jdbc:sqlite:file:" + databaseName + "?mode=memory&cache=shared";
+        } else {
+            return "jdbc:sqlite::memory:";
+        }
+    }
+
+    private static File getDatabaseFile(File dir, SQLite3GlobalState globalState) {
         if (!dir.exists()) {
-            dir.mkdir();
+            dir.mkdirs();
         }
         File dataBase = new File(dir, globalState.getDatabaseName() + ".db");
-        if (dataBase.exists() && ((SQLite3GlobalState) globalState).getDmbsSpecificOptions().deleteIfExists) {
+        if (dataBase.exists() && globalState.getDmbsSpecificOptions().deleteIfExists) {
             dataBase.delete();
         }
-        String url = "jdbc:sqlite:" + dataBase.getAbsolutePath();
-        return new SQLConnection(DriverManager.getConnection(url));
+        return dataBase;
+    }
+
+    @Override
+    public DatabaseSnapshot<SQLConnection> createSnapshot(SQLite3GlobalState globalState) throws Exception {
+        SQLite3Options options = globalState.getDmbsSpecificOptions();
+        File dir = getDatabaseDirectory(options);
+        File snapshotFile;
+        if (dir == null) {
+            snapshotFile = File.createTempFile(globalState.getDatabaseName() + "_snapshot", ".db");
+        } else {
+            snapshotFile = new File(dir, globalState.getDatabaseName() + "_snapshot.db");
+        }
+        Files.deleteIfExists(snapshotFile.toPath());
+        try (Statement s = globalState.getConnection().createStatement()) {
+            try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM sqlite_temp_master")) {
+                rs.next();
+                if (rs.getInt(1) != 0) {
+                    // temporary tables, views, and triggers are not part of the database file
+                    return null;
+                }
+            }
+            s.execute("VACUUM INTO '" + snapshotFile.getAbsolutePath().replace("'", "''") + "'");
+        } catch (SQLException e) {
+            Files.deleteIfExists(snapshotFile.toPath());
+            return null;
+        }
+        return new SQLite3Snapshot(globalState, snapshotFile);
+    }
+
+    private static class SQLite3Snapshot extends SQLDatabaseSnapshot {
+
+        private final SQLite3Options options;
+        private final File snapshotFile;
+
+        SQLite3Snapshot(SQLite3GlobalState globalState, File snapshotFile) {
+            super(globalState, "PRAGMA");
+            this.options = globalState.getDmbsSpecificOptions();
+            this.snapshotFile = snapshotFile;
+        }
+
+        @Override
+        protected SQLConnection copyDatabase(String cloneName) throws Exception {
+            File dir = getDatabaseDirectory(options);
+            if (dir == null) {
+                Connection con = DriverManager.getConnection(getInMemoryURL(options, cloneName));
+                try (Statement s = con.createStatement()) {
+                    // the restore command of the driver uses SQLite's backup API
+                    s.executeUpdate("restore from \"" + snapshotFile.getAbsolutePath() + "\"");
+                }
+                return new SQLConnection(con);
+            }
+            File cloneFile = new File(dir, cloneName + ".db");
+            Files.deleteIfExists(new File(dir, cloneName + ".db-journal").toPath());
+            Files.copy(snapshotFile.toPath(), cloneFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return new SQLConnection(DriverManager.getConnection("jdbc:sqlite:" + cloneFile.getAbsolutePath()));
+        }
+
+        @Override
+        public void close() throws Exception {
+            Files.deleteIfExists(snapshotFile.toPath());
+        }
+
+    }
+
+    @Override
+    protected void preserveDatabase(SQLite3GlobalState globalState) throws Exception {
+        if (globalState.getDmbsSpecificOptions().storage == SQLite3StorageMode.DISK) {
+            return;
+        }
+        File dataBase = new File(DATABASE_DIRECTORY, globalState.getDatabaseName() + ".db");
+        if (!DATABASE_DIRECTORY.exists()) {
+            DATABASE_DIRECTORY.mkdirs();
+        }
+        Files.deleteIfExists(dataBase.toPath());
+        String path = dataBase.getAbsolutePath();
+        try (Statement s = globalState.getConnection().createStatement()) {
+            // unlike the backup API, VACUUM INTO fails rather than writing an empty database within a transaction
+            s.execute("VACUUM INTO '" + path.replace("'", "''") + "'");
+            globalState.getState().logStatement("-- the database was saved to " + path);
+        } catch (SQLException e) {
+            globalState.getState().logStatement("-- the database could not be saved: " + e.getMessage());
+        }
     }
 
     @Override
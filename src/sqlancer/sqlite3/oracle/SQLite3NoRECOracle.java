@@ -62,7 +62,7 @@ public class SQLite3NoRECOracle extends NoRECBase<SQLite3GlobalState> implements
         select.setFromTables(tableRefs);
         select.setJoinClauses(joinStatements);
 
-        int optimizedCount = getOptimizedQuery(select, randomWhereCondition);
+        int optimizedCount = getOptimizedQuery(select, randomWhereCondition, columns.size());
         int unoptimizedCount = getUnoptimizedQuery(select, randomWhereCondition);
         if (optimizedCount == NO_VALID_RESULT || unoptimizedCount == NO_VALID_RESULT) {
             throw new IgnoreMeException();
@@ -88,7 +88,8 @@ public class SQLite3NoRECOracle extends NoRECBase<SQLite3GlobalState> implements
         return extractCounts(q);
     }
 
-    private int getOptimizedQuery(SQLite3Select select, SQLite3Expression randomWhereCondition) throws SQLException {
+    private int getOptimizedQuery(SQLite3Select select, SQLite3Expression randomWhereCondition, int nrColumns)
+            throws SQLException {
         boolean useAggregate = Randomly.getBoolean();
         if (Randomly.getBoolean()) {
             select.setOrderByExpressions(gen.generateOrderBys());
@@ -102,11 +103,22 @@ public class SQLite3NoRECOracle extends NoRECBase<SQLite3GlobalState> implements
         }
         select.setWhereClause(randomWhereCondition);
         optimizedQueryString = SQLite3Visitor.asString(select);
+        String countQuery = useAggregate ? null : getFoldedCountQuery(optimizedQueryString, nrColumns);
+        if (countQuery != null) {
+            optimizedQueryString = countQuery;
+        }
         if (options.logEachSelect()) {
             logger.writeCurrent(optimizedQueryString);
         }
+        state.checkEstimatedCardinality(optimizedQueryString);
         SQLQueryAdapter q = new SQLQueryAdapter(optimizedQueryString, errors);
-        return useAggregate ? extractCounts(q) : countRows(q);
+        return useAggregate || countQuery != null ? extractCounts(q) : countRows(q);
+    }
+
+    @Override
+    protected String getCountQuery(String optimizedQuery, int nrColumns) {
+        // the query flattener does not merge subqueries with an OFFSET
+        return "SELECT COUNT(*) FROM (" + optimizedQuery + " LIMIT -1 OFFSET 0)";
     }
 
     private int countRows(SQLQueryAdapter q) {
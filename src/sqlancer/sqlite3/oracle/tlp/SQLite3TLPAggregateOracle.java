@@ -4,10 +4,10 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 
-import sqlancer.ComparatorHelper;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.common.oracle.TestOracle;
+import sqlancer.common.query.ColumnarResult;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
@@ -72,14 +72,14 @@ public class SQLite3TLPAggregateOracle implements TestOracle {
 
         // String finalText = originalQuery + " INTERSECT " + metamorphicText;
         // state.getState().queryString = "--" + finalText;
-        String firstResult;
-        String secondResult;
+        ColumnarResult firstResult;
+        ColumnarResult secondResult;
         SQLQueryAdapter q = new SQLQueryAdapter(originalQuery, errors);
         try (SQLancerResultSet result = q.executeAndGet(state)) {
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            firstResult = result.getString(1);
+            firstResult = ColumnarResult.fetch(result);
         } catch (Exception e) {
             // TODO
             throw new IgnoreMeException();
@@ -90,16 +90,14 @@ public class SQLite3TLPAggregateOracle implements TestOracle {
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            secondResult = result.getString(1);
+            secondResult = ColumnarResult.fetch(result);
         } catch (Exception e) {
             // TODO
             throw new IgnoreMeException();
         }
         state.getState().getLocalState()
                 .log("--" + originalQuery + "\n--" + metamorphicText + "\n-- " + firstResult + "\n-- " + secondResult);
-        if ((firstResult == null && secondResult != null
-                || firstResult != null && !firstResult.contentEquals(secondResult))
-                && !ComparatorHelper.isEqualDouble(firstResult, secondResult)) {
+        if (!firstResult.rowsEqual(secondResult)) {
 
             throw new AssertionError();
 
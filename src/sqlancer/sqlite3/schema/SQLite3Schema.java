@@ -34,6 +34,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
     public static final List<String> ROWID_STRINGS = Collections
             .unmodifiableList(Arrays.asList("rowid", "_rowid_", "oid"));
     private final List<String> indexNames;
+    private final boolean hasTriggersOrForeignKeys;
 
     public List<String> getIndexNames() {
         return indexNames;
@@ -201,14 +202,22 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
         private final boolean withoutRowid;
         private final boolean isVirtual;
         private final boolean isReadOnly;
+        // whether a column constraint has an ON CONFLICT REPLACE clause, so that INSERT and UPDATE can delete rows
+        private final boolean replacesConflictingRows;
 
         public SQLite3Table(String tableName, List<SQLite3Column> columns, TableKind tableType, boolean withoutRowid,
                 boolean isView, boolean isVirtual, boolean isReadOnly) {
+            this(tableName, columns, tableType, withoutRowid, isView, isVirtual, isReadOnly, false);
+        }
+
+        public SQLite3Table(String tableName, List<SQLite3Column> columns, TableKind tableType, boolean withoutRowid,
+                boolean isView, boolean isVirtual, boolean isReadOnly, boolean replacesConflictingRows) {
             super(tableName, columns, Collections.emptyList(), isView);
             this.tableType = tableType;
             this.withoutRowid = withoutRowid;
             this.isVirtual = isVirtual;
             this.isReadOnly = isReadOnly;
+            this.replacesConflictingRows = replacesConflictingRows;
         }
 
         public boolean hasWithoutRowid() {
@@ -231,6 +240,11 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
             return isVirtual;
         }
 
+        @Override
+        public boolean updateCountIsRowCountChange() {
+            return !isVirtual && !replacesConflictingRows;
+        }
+
         public boolean isSystemTable() {
             return getName().startsWith("sqlit");
         }
@@ -253,9 +267,16 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
 
     }
 
-    public SQLite3Schema(List<SQLite3Table> databaseTables, List<String> indexNames) {
+    public SQLite3Schema(List<SQLite3Table> databaseTables, List<String> indexNames,
+            boolean hasTriggersOrForeignKeys) {
         super(databaseTables);
         this.indexNames = indexNames;
+        this.hasTriggersOrForeignKeys = hasTriggersOrForeignKeys;
+    }
+
+    @Override
+    public boolean dataModificationsCanAffectOtherTables() {
+        return hasTriggersOrForeignKeys;
     }
 
     @Override
@@ -271,19 +292,24 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
     public static SQLite3Schema fromConnection(SQLite3GlobalState globalState) throws SQLException {
         List<SQLite3Table> databaseTables = new ArrayList<>();
         List<String> indexNames = new ArrayList<>();
+        boolean hasTriggersOrForeignKeys = false;
         SQLConnection con = globalState.getConnection();
 
         try (Statement s = con.createStatement()) {
             try (ResultSet rs = s.executeQuery("SELECT name, type as category, sql FROM sqlite_master UNION "
-                    + "SELECT name, 'temp_table' as category, sql FROM sqlite_temp_master WHERE type='table' UNION SELECT name, 'view' as category, sql FROM sqlite_temp_master WHERE type='view' GROUP BY name;")) {
+                    + "SELECT name, 'temp_table' as category, sql FROM sqlite_temp_master WHERE type='table' UNION "
+                    + "SELECT name, 'trigger' as category, sql FROM sqlite_temp_master WHERE type='trigger' UNION SELECT name, 'view' as category, sql FROM sqlite_temp_master WHERE type='view' GROUP BY name;")) {
                 while (rs.next()) {
                     String tableName = rs.getString("name");
                     String tableType = rs.getString("category");
                     boolean isReadOnly;
+                    String sqlString = rs.getString("sql") == null ? "" : rs.getString("sql").toLowerCase();
+                    if (tableType.equals("trigger") || sqlString.contains("references")) {
+                        hasTriggersOrForeignKeys = true;
+                    }
                     if (databaseTables.stream().anyMatch(t -> t.getName().contentEquals(tableName))) {
                         continue;
                     }
-                    String sqlString = rs.getString("sql") == null ? "" : rs.getString("sql").toLowerCase();
                     if (tableName.startsWith("sqlite_") || tableType.equals("index") || tableType.equals("trigger")
                             || tableName.endsWith("_idx") || tableName.endsWith("_docsize")
                             || tableName.endsWith("_content") || tableName.endsWith("_data")
@@ -304,9 +330,10 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                     boolean isDbStatsTable = sqlString.contains("using dbstat");
                     List<SQLite3Column> databaseColumns = getTableColumns(con, tableName, sqlString, isView,
                             isDbStatsTable);
+                    boolean replacesConflictingRows = sqlString.contains("on conflict replace");
                     SQLite3Table t = new SQLite3Table(tableName, databaseColumns,
                             tableType.contentEquals("temp_table") ? TableKind.TEMP : TableKind.MAIN, withoutRowid,
-                            isView, isVirtual, isReadOnly);
+                            isView, isVirtual, isReadOnly, replacesConflictingRows);
                     if (isRowIdTable(withoutRowid, isView, isVirtual)) {
                         String rowId = Randomly.fromList(ROWID_STRINGS);
                         SQLite3Column rowid = new SQLite3Column(rowId, SQLite3DataType.INT, true, null, true);
@@ -320,6 +347,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                 }
             } catch (SQLException e) {
                 // ignore
+                hasTriggersOrForeignKeys = true;
             }
             try (ResultSet rs = s.executeQuery(
                     "SELECT name FROM SQLite_master WHERE type = 'index' UNION SELECT name FROM sqlite_temp_master WHERE type='index'")) {
@@ -337,7 +365,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
             }
         }
 
-        return new SQLite3Schema(databaseTables, indexNames);
+        return new SQLite3Schema(databaseTables, indexNames, hasTriggersOrForeignKeys);
     }
 
     // https://www.sqlite.org/rowidtable.html
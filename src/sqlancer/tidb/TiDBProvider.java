@@ -4,10 +4,13 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.regex.Pattern;
 
 import sqlancer.AbstractAction;
+import sqlancer.DatabasePool;
 import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
+import sqlancer.ResultStreaming;
 import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
@@ -68,11 +71,19 @@ public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOption
 
     public static class TiDBGlobalState extends SQLGlobalState<TiDBOptions, TiDBSchema> {
 
+        // the estRows column follows the operator, for example, "  └─TableFullScan_5 10000.00 cop[tikv] ..."
+        private static final Pattern ESTIMATED_ROWS = Pattern.compile("(?m)^\\s*\\S+ (\\d+(?:\\.\\d+)?) ");
+
         @Override
         protected TiDBSchema readSchema() throws SQLException {
             return TiDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        protected long getEstimatedCardinality(String query) throws SQLException {
+            return getMaxEstimate(getExplainOutput(query), ESTIMATED_ROWS);
+        }
+
     }
 
     private static int mapActions(TiDBGlobalState globalState, Action a) {
@@ -132,25 +143,26 @@ public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOption
 
     @Override
     public SQLConnection createDatabase(TiDBGlobalState globalState) throws SQLException {
-        String databaseName = globalState.getDatabaseName();
         String url = "jdbc:mysql://127.0.0.1:4000/";
-        Connection con = DriverManager.getConnection(url, globalState.getOptions().getUserName(),
-                globalState.getOptions().getPassword());
+        String username = globalState.getOptions().getUserName();
+        String password = globalState.getOptions().getPassword();
+        Connection con = DatabasePool.getDatabase(globalState, databaseName -> {
+            try (Connection c = DriverManager.getConnection(url, username, password)) {
+                try (Statement s = c.createStatement()) {
+                    s.execute("DROP DATABASE IF EXISTS " + databaseName);
+                }
+                try (Statement s = c.createStatement()) {
+                    s.execute("CREATE DATABASE " + databaseName);
+                }
+            }
+            return DriverManager.getConnection(url + databaseName, username, password);
+        });
+        String databaseName = globalState.getDatabaseName();
         globalState.getState().logStatement("USE test");
         globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
-        String createDatabaseCommand = "CREATE DATABASE " + databaseName;
-        globalState.getState().logStatement(createDatabaseCommand);
+        globalState.getState().logStatement("CREATE DATABASE " + databaseName);
         globalState.getState().logStatement("USE " + databaseName);
-        try (Statement s = con.createStatement()) {
-            s.execute("DROP DATABASE IF EXISTS " + databaseName);
-        }
-        try (Statement s = con.createStatement()) {
-            s.execute(createDatabaseCommand);
-        }
-        con.close();
-        con = DriverManager.getConnection("jdbc:mysql://127.0.0.1:4000/" + databaseName,
-                globalState.getOptions().getUserName(), globalState.getOptions().getPassword());
-        return new SQLConnection(con);
+        return new SQLConnection(con, ResultStreaming.ROW_BY_ROW, globalState.getOptions().getFetchSize());
     }
 
     @Override
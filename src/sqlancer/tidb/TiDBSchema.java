@@ -172,6 +172,11 @@ public class TiDBSchema extends AbstractSchema<TiDBGlobalState, TiDBTable> {
         super(databaseTables);
     }
 
+    @Override
+    public boolean dataModificationsCanAffectOtherTables() {
+        return false;
+    }
+
     public TiDBTables getRandomTableNonEmptyTables() {
         return new TiDBTables(Randomly.nonEmptySubset(getDatabaseTables()));
     }
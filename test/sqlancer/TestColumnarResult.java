@@ -0,0 +1,97 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.ColumnarResult;
+import sqlancer.common.query.SQLancerResultSet;
+
+public class TestColumnarResult {
+
+    private Connection con;
+
+    @BeforeEach
+    public void connect() throws SQLException {
+        con = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @AfterEach
+    public void close() throws SQLException {
+        con.close();
+    }
+
+    private ColumnarResult fetch(String query) throws SQLException {
+        Statement s = con.createStatement();
+        try (SQLancerResultSet result = new SQLancerResultSet(s.executeQuery(query))) {
+            return ColumnarResult.fetch(result);
+        }
+    }
+
+    @Test
+    public void testTypes() throws SQLException {
+        ColumnarResult result = fetch("SELECT 1, 1.5, 'a', x'00ff', NULL");
+        assertEquals(1, result.getNrRows());
+        assertEquals(5, result.getNrColumns());
+        assertEquals("1", result.getString(0, 0));
+        assertEquals("1.5", result.getString(0, 1));
+        assertEquals("a", result.getString(0, 2));
+        assertTrue(result.isNull(0, 4));
+        assertNull(result.getString(0, 4));
+        assertFalse(result.isNull(0, 0));
+    }
+
+    @Test
+    public void testManyRows() throws SQLException {
+        ColumnarResult result = fetch(
+                "WITH RECURSIVE c(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM c WHERE x < 100) SELECT x, x || 'a' FROM c");
+        assertEquals(100, result.getNrRows());
+        assertEquals("100", result.getString(99, 0));
+        assertEquals("100a", result.getString(99, 1));
+        assertTrue(result.rowsEqual(result));
+    }
+
+    @Test
+    public void testMixedTypesInColumn() throws SQLException {
+        ColumnarResult result = fetch("SELECT 1 UNION ALL SELECT 2.5 UNION ALL SELECT 'a' UNION ALL SELECT NULL");
+        assertEquals("[1, 2.5, a, null]", result.toString());
+    }
+
+    @Test
+    public void testNumbers() throws SQLException {
+        assertTrue(fetch("SELECT 3").rowsEqual(fetch("SELECT 3.0")));
+        assertTrue(fetch("SELECT 3.0").rowsEqual(fetch("SELECT '3'")));
+        assertTrue(fetch("SELECT 0.1 + 0.2").rowsEqual(fetch("SELECT 0.3")));
+        assertTrue(fetch("SELECT 1e308 * 10").rowsEqual(fetch("SELECT 1e308 * 10")));
+        assertFalse(fetch("SELECT 9223372036854775807").rowsEqual(fetch("SELECT 9223372036854775806")));
+        assertFalse(fetch("SELECT 3").rowsEqual(fetch("SELECT 4")));
+        assertFalse(fetch("SELECT 3").rowsEqual(fetch("SELECT 'a'")));
+    }
+
+    @Test
+    public void testNull() throws SQLException {
+        assertTrue(fetch("SELECT NULL").rowsEqual(fetch("SELECT NULL")));
+        assertFalse(fetch("SELECT NULL").rowsEqual(fetch("SELECT 0")));
+        assertFalse(fetch("SELECT ''").rowsEqual(fetch("SELECT NULL")));
+    }
+
+    @Test
+    public void testRows() throws SQLException {
+        assertTrue(fetch("SELECT 1, 'a'").rowsEqual(fetch("SELECT 1.0, 'a'")));
+        assertFalse(fetch("SELECT 1, 'a'").rowsEqual(fetch("SELECT 1, 'b'")));
+        assertFalse(fetch("SELECT 1, 'a'").rowsEqual(fetch("SELECT 1")));
+        assertFalse(fetch("SELECT 1 UNION ALL SELECT 2").rowsEqual(fetch("SELECT 1")));
+        assertEquals("[(1, a), (2, b)]", fetch("SELECT 1, 'a' UNION ALL SELECT 2, 'b'").toString());
+    }
+
+}
@@ -0,0 +1,79 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TestConstantCache {
+
+    @Test
+    public void testLongCache() {
+        LongConstantCache cache = new LongConstantCache(100);
+        for (long i = 0; i < 1000; i++) {
+            cache.add(i % 50 * 1024);
+        }
+        assertEquals(50, cache.size());
+        for (long i = 0; i < 50; i++) {
+            assertTrue(cache.contains(i * 1024));
+            assertEquals(i * 1024, cache.get((int) i));
+        }
+        assertFalse(cache.contains(1));
+    }
+
+    @Test
+    public void testLongCacheIsBounded() {
+        LongConstantCache cache = new LongConstantCache(10);
+        for (long i = Long.MIN_VALUE; i < Long.MIN_VALUE + 100; i++) {
+            cache.add(i);
+        }
+        assertEquals(10, cache.size());
+        assertTrue(cache.contains(Long.MIN_VALUE + 9));
+        assertFalse(cache.contains(Long.MIN_VALUE + 10));
+    }
+
+    @Test
+    public void testLongCacheGrows() {
+        LongConstantCache cache = new LongConstantCache(LongConstantCache.MAX_CAPACITY);
+        for (long i = 0; i < 1000; i++) {
+            cache.add(i * 7);
+        }
+        assertEquals(1000, cache.size());
+        for (long i = 0; i < 1000; i++) {
+            assertTrue(cache.contains(i * 7));
+            assertEquals(i * 7, cache.get((int) i));
+        }
+        assertFalse(cache.contains(1));
+    }
+
+    @Test
+    public void testDoubleBits() {
+        LongConstantCache cache = new LongConstantCache(10);
+        cache.add(Double.doubleToLongBits(0.0));
+        cache.add(Double.doubleToLongBits(-0.0));
+        cache.add(Double.doubleToLongBits(Double.NaN));
+        cache.add(Double.doubleToLongBits(0.0 / 0.0));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testStringCacheReplacement() {
+        StringConstantCache cache = new StringConstantCache(3);
+        cache.add("a", 0);
+        cache.add("b", 0);
+        cache.add("a", 0);
+        assertFalse(cache.isFull());
+        cache.add("c", 0);
+        assertTrue(cache.isFull());
+        cache.add("d", 1);
+        assertEquals(3, cache.size());
+        assertEquals("a", cache.get(0));
+        assertEquals("d", cache.get(1));
+        assertEquals("c", cache.get(2));
+        // "b" was evicted, so it can be added again
+        cache.add("b", 0);
+        assertEquals("b", cache.get(0));
+    }
+
+}
@@ -0,0 +1,31 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+public class TestEstimatedCardinality {
+
+    @Test
+    public void testMaxEstimate() {
+        String plan = "Hash Join  (cost=60.85..1284.22 rows=64770 width=8)\n"
+                + "  ->  Seq Scan on t0  (cost=0.00..35.50 rows=2550 width=4)\n"
+                + "  ->  Hash  (cost=28.50..28.50 rows=2550 width=4)\n";
+        assertEquals(64770, SQLGlobalState.getMaxEstimate(plan, Pattern.compile("rows=(\\d+)")));
+    }
+
+    @Test
+    public void testSeparatorsAndFractions() {
+        Pattern pattern = Pattern.compile("estimated row count: ([\\d,.]+)");
+        assertEquals(1_000_000, SQLGlobalState.getMaxEstimate("estimated row count: 1,000,000", pattern));
+        assertEquals(4, SQLGlobalState.getMaxEstimate("estimated row count: 3.33", pattern));
+    }
+
+    @Test
+    public void testNoEstimate() {
+        assertEquals(-1, SQLGlobalState.getMaxEstimate("SCAN t0", Pattern.compile("rows=(\\d+)")));
+    }
+
+}
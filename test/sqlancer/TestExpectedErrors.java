@@ -1,8 +1,13 @@
 package sqlancer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 import sqlancer.common.query.ExpectedErrors;
@@ -37,4 +42,73 @@ public class TestExpectedErrors {
         assertTrue(errors.errorIsExpected("PRIMARY KEY constraint was violated!"));
     }
 
+    @Test
+    public void testOverlapping() {
+        ExpectedErrors errors = ExpectedErrors.from("abcd", "bce", "cx");
+        assertTrue(errors.errorIsExpected("xabcex"));
+        assertTrue(errors.errorIsExpected("abcx"));
+        assertFalse(errors.errorIsExpected("abcbcdxabd"));
+    }
+
+    @Test
+    public void testAddAfterCheck() {
+        ExpectedErrors errors = ExpectedErrors.from("a");
+        assertFalse(errors.errorIsExpected("b"));
+        errors.add("b");
+        assertTrue(errors.errorIsExpected("b"));
+    }
+
+    @Test
+    public void testDuplicates() {
+        ExpectedErrors errors = ExpectedErrors.from("a");
+        assertTrue(errors.errorIsExpected("a"));
+        for (int i = 0; i < 100; i++) {
+            errors.add("b");
+            assertTrue(errors.errorIsExpected("b"));
+        }
+        assertFalse(errors.errorIsExpected("c"));
+    }
+
+    @Test // more distinct lists than automata are shared
+    public void testManyDistinctErrorLists() {
+        for (int i = 0; i < 2000; i++) {
+            ExpectedErrors errors = ExpectedErrors.from("error " + i, "other error");
+            assertTrue(errors.errorIsExpected("an error " + i + "!"));
+            assertTrue(errors.errorIsExpected("some other error"));
+            assertFalse(errors.errorIsExpected("error"));
+        }
+    }
+
+    @Test
+    public void testEmptyError() {
+        ExpectedErrors errors = ExpectedErrors.from("");
+        assertTrue(errors.errorIsExpected(""));
+        assertTrue(errors.errorIsExpected("a"));
+    }
+
+    @Test // compare against String.contains for random messages over a small alphabet
+    public void testRandomized() {
+        Random r = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            List<String> substrings = new ArrayList<>();
+            for (int j = 0; j < r.nextInt(10); j++) {
+                substrings.add(randomString(r, 1 + r.nextInt(4)));
+            }
+            ExpectedErrors errors = new ExpectedErrors().addAll(substrings);
+            for (int j = 0; j < 10; j++) {
+                String message = randomString(r, r.nextInt(20));
+                boolean expected = substrings.stream().anyMatch(message::contains);
+                assertEquals(expected, errors.errorIsExpected(message), substrings + " " + message);
+            }
+        }
+    }
+
+    private static String randomString(Random r, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + r.nextInt(3)));
+        }
+        return sb.toString();
+    }
+
 }
@@ -0,0 +1,77 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.MultisetHash;
+
+public class TestMultisetHash {
+
+    private static MultisetHash hash(String... values) {
+        MultisetHash hash = new MultisetHash();
+        for (String value : values) {
+            hash.add(value);
+        }
+        return hash;
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(new MultisetHash(), new MultisetHash());
+        assertEquals(0, new MultisetHash().size());
+        assertNotEquals(new MultisetHash(), hash(""));
+    }
+
+    @Test
+    public void testOrderIndependent() {
+        assertEquals(hash("a", "b", null, "c"), hash(null, "c", "b", "a"));
+    }
+
+    @Test
+    public void testMultiplicity() {
+        assertNotEquals(hash("a", "a", "b"), hash("a", "b", "b"));
+        assertNotEquals(hash("a", "a"), hash("a"));
+        assertEquals(3, hash("a", "a", "b").size());
+    }
+
+    @Test
+    public void testNull() {
+        assertNotEquals(hash((String) null), hash("null"));
+        assertNotEquals(hash((String) null), hash(""));
+    }
+
+    @Test
+    public void testSimilarValues() {
+        assertNotEquals(hash("ab"), hash("ba"));
+        assertNotEquals(hash("a", "bc"), hash("ab", "c"));
+        assertNotEquals(hash("0"), hash("0.0"));
+        assertNotEquals(hash("\0"), hash(""));
+    }
+
+    @Test
+    public void testRandomized() {
+        Random r = new Random(0);
+        for (int i = 0; i < 100; i++) {
+            List<String> values = new ArrayList<>();
+            int nrValues = r.nextInt(100);
+            for (int j = 0; j < nrValues; j++) {
+                values.add(r.nextInt(10) == 0 ? null : String.valueOf(r.nextInt(20)));
+            }
+            MultisetHash first = hash(values.toArray(new String[0]));
+            Collections.shuffle(values, r);
+            assertEquals(first, hash(values.toArray(new String[0])));
+            if (!values.isEmpty()) {
+                values.set(r.nextInt(values.size()), "x");
+                assertNotEquals(first, hash(values.toArray(new String[0])));
+            }
+        }
+    }
+
+}
@@ -9,7 +9,9 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -223,6 +225,18 @@ public class TestRandomly {
         }
     }
 
+    @Test // test that the seeds of consecutive databases are deterministic and do not repeat
+    public void testNextDatabaseSeed() {
+        Set<Long> seeds = new HashSet<>();
+        long seed = 0;
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(seeds.add(seed));
+            long nextSeed = Randomly.getNextDatabaseSeed(seed);
+            assertEquals(nextSeed, Randomly.getNextDatabaseSeed(seed));
+            seed = nextSeed;
+        }
+    }
+
     private List<String> getRandomValueList(Randomly r) {
         List<String> values = new ArrayList<>();
         for (int i = 0; i < 1000; i++) {
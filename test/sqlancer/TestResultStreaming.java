@@ -0,0 +1,111 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+
+public class TestResultStreaming {
+
+    private static int countRows(Statement s) throws SQLException {
+        int count = 0;
+        try (ResultSet rs = s.executeQuery(
+                "WITH RECURSIVE c(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM c WHERE x < 100) SELECT x FROM c")) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testCursor() throws SQLException {
+        Connection jdbcConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (SQLConnection con = new SQLConnection(jdbcConnection, ResultStreaming.CURSOR, 10, c -> true)) {
+            Statement s = con.acquireStreamingStatement();
+            assertFalse(jdbcConnection.getAutoCommit());
+            assertEquals(10, s.getFetchSize());
+            assertEquals(100, countRows(s));
+            con.releaseStreamingStatement(s, true);
+            assertTrue(jdbcConnection.getAutoCommit());
+            // the statement is reused with the default fetch size
+            Statement reused = con.acquireStatement();
+            assertSame(s, reused);
+            assertEquals(0, reused.getFetchSize());
+            con.releaseStatement(reused);
+        }
+    }
+
+    @Test
+    public void testCursorAfterError() throws SQLException {
+        Connection jdbcConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (SQLConnection con = new SQLConnection(jdbcConnection, ResultStreaming.CURSOR, 10)) {
+            Statement s = con.acquireStreamingStatement();
+            try {
+                s.executeQuery("SELECT * FROM t0");
+            } catch (SQLException e) {
+                con.releaseStreamingStatement(s, false);
+            }
+            assertTrue(s.isClosed());
+            assertTrue(jdbcConnection.getAutoCommit());
+        }
+    }
+
+    @Test
+    public void testCursorInOpenTransaction() throws SQLException {
+        Connection jdbcConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (SQLConnection con = new SQLConnection(jdbcConnection, ResultStreaming.CURSOR, 10, c -> false)) {
+            try (Statement s = con.createStatement()) {
+                s.execute("BEGIN");
+                s.execute("CREATE TABLE t0(c0)");
+                s.execute("INSERT INTO t0 VALUES (1)");
+            }
+            Statement s = con.acquireStreamingStatement();
+            assertTrue(jdbcConnection.getAutoCommit());
+            assertEquals(0, s.getFetchSize());
+            assertEquals(100, countRows(s));
+            con.releaseStreamingStatement(s, true);
+            // the uncommitted statements are not rolled back
+            try (Statement commit = con.createStatement()) {
+                commit.execute("COMMIT");
+                try (ResultSet rs = commit.executeQuery("SELECT COUNT(*) FROM t0")) {
+                    assertTrue(rs.next());
+                    assertEquals(1, rs.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCursorUnknownTransactionState() throws SQLException {
+        Connection jdbcConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (SQLConnection con = new SQLConnection(jdbcConnection, ResultStreaming.CURSOR, 10)) {
+            Statement s = con.acquireStreamingStatement();
+            assertTrue(jdbcConnection.getAutoCommit());
+            assertEquals(0, s.getFetchSize());
+            assertEquals(100, countRows(s));
+            con.releaseStreamingStatement(s, true);
+        }
+    }
+
+    @Test
+    public void testDisabled() throws SQLException {
+        Connection jdbcConnection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (SQLConnection con = new SQLConnection(jdbcConnection, ResultStreaming.CURSOR, 0)) {
+            Statement s = con.acquireStreamingStatement();
+            assertTrue(jdbcConnection.getAutoCommit());
+            assertEquals(0, s.getFetchSize());
+            assertEquals(100, countRows(s));
+            con.releaseStreamingStatement(s, true);
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TestStatementHistory {
+
+    @Test
+    public void testSpilledStatementsAreRetained() {
+        StatementHistory history = new StatementHistory();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            String statement = i % 3 == 0 ? "COMMIT;" : "INSERT INTO t0(c0) VALUES (" + i + ", 'ü');";
+            history.add(statement);
+            expected.add(statement);
+        }
+        assertEquals(expected.size(), history.size());
+        assertEquals(expected, history.getStatements());
+        history.clear();
+        assertEquals(0, history.getStatements().size());
+    }
+
+}
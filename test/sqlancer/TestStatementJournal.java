@@ -0,0 +1,77 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.log.StatementJournalReader;
+import sqlancer.common.log.StatementJournalWriter;
+
+public class TestStatementJournal {
+
+    @Test
+    public void testUncompressed() throws Exception {
+        testRoundTrip(false);
+    }
+
+    @Test
+    public void testCompressed() throws Exception {
+        testRoundTrip(true);
+    }
+
+    private void testRoundTrip(boolean compress) throws Exception {
+        File file = File.createTempFile("sqlancer", ".journal");
+        file.deleteOnExit();
+        StringBuilder expected = new StringBuilder();
+        try (StatementJournalWriter writer = new StatementJournalWriter(file, 0, compress, "sqlite3", "database0",
+                "3.34.0", 42)) {
+            for (int i = 0; i < 1000; i++) {
+                String statement = "INSERT INTO t0(c0) VALUES (" + i + "); -- 0ms;\n";
+                writer.write(statement);
+                expected.append(statement);
+            }
+            writer.write("SELECT 'ä';\n");
+            expected.append("SELECT 'ä';\n");
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            StatementJournalReader reader = new StatementJournalReader(in);
+            assertEquals("sqlite3", reader.getDBMSName());
+            assertEquals("database0", reader.getDatabaseName());
+            assertEquals("3.34.0", reader.getDatabaseVersion());
+            assertEquals(42, reader.getSeedValue());
+            StringWriter rendered = new StringWriter();
+            reader.render(rendered);
+            assertEquals(expected.toString(), rendered.toString());
+        }
+    }
+
+    @Test
+    public void testCorruptBlockLength() throws Exception {
+        File file = File.createTempFile("sqlancer", ".journal");
+        file.deleteOnExit();
+        try (StatementJournalWriter writer = new StatementJournalWriter(file, 0, false, "sqlite3", "database0",
+                "3.34.0", 42)) {
+            writer.write("SELECT 1;\n");
+        }
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file, true))) {
+            out.writeByte(0);
+            out.writeInt(Integer.MAX_VALUE);
+            out.writeInt(Integer.MAX_VALUE);
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            StatementJournalReader reader = new StatementJournalReader(in);
+            assertEquals("SELECT 1;\n", reader.readBlock());
+            assertThrows(IOException.class, () -> reader.readBlock());
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.StatementWatchdog.WatchedStatement;
+
+public class TestStatementWatchdog {
+
+    private static final String ENDLESS_QUERY = "WITH RECURSIVE c(x) AS (SELECT 1 UNION ALL SELECT x + 1 FROM c) "
+            + "SELECT COUNT(*) FROM c";
+
+    private static WatchedStatement execute(String query, long timeoutMillis, long hangThresholdMillis)
+            throws SQLException {
+        try (Connection con = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement s = con.createStatement()) {
+            try (WatchedStatement watchedStatement = StatementWatchdog.watch(s, query,
+                    TimeUnit.MILLISECONDS.toNanos(timeoutMillis), TimeUnit.MILLISECONDS.toNanos(hangThresholdMillis),
+                    null)) {
+                try {
+                    s.execute(query);
+                } catch (SQLException e) {
+                    // interrupted
+                }
+                return watchedStatement;
+            }
+        }
+    }
+
+    @Test
+    public void testTimeout() throws SQLException {
+        assertTrue(execute(ENDLESS_QUERY, 100, 0).wasCancelled());
+    }
+
+    @Test
+    public void testHang() throws SQLException {
+        WatchedStatement watchedStatement = execute(ENDLESS_QUERY, 0, 100);
+        assertThrows(AssertionError.class, () -> watchedStatement.wasCancelled());
+    }
+
+    @Test
+    public void testNoTimeout() throws SQLException {
+        assertFalse(execute("SELECT 1", 100_000, 100_000).wasCancelled());
+    }
+
+}
@@ -0,0 +1,36 @@
+package sqlancer.common.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class TestLatencyHistogram {
+
+    @Test
+    public void testBucketBoundsContainValue() {
+        long[] values = { 0, 1, 3, 4, 5, 7, 8, 100, 1000, 123456789, Long.MAX_VALUE / 3, Long.MAX_VALUE };
+        for (long value : values) {
+            int index = LatencyHistogram.getBucketIndex(value);
+            assertTrue(value <= LatencyHistogram.getBucketUpperBound(index), String.valueOf(value));
+            if (index != 0) {
+                assertTrue(value > LatencyHistogram.getBucketUpperBound(index - 1), String.valueOf(value));
+            }
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new MetricsRegistry().histogram("test", "label", "value");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1_000_000L, snapshot.getMaxNanos());
+        long median = snapshot.getValueAtPercentile(50);
+        assertTrue(median >= 500_000 && median <= 500_000 * 1.25, String.valueOf(median));
+        assertEquals(1_000_000L, snapshot.getValueAtPercentile(100));
+    }
+
+}
@@ -0,0 +1,46 @@
+package sqlancer.common.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.sqlite3.schema.SQLite3Schema;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table.TableKind;
+
+public class TestRowCounts {
+
+    private static SQLite3Table createTable(String name, boolean replacesConflictingRows) {
+        SQLite3Table table = new SQLite3Table(name, Collections.emptyList(), TableKind.MAIN, false, false, false, false,
+                replacesConflictingRows);
+        table.setRowCount(5);
+        return table;
+    }
+
+    @Test
+    public void testInsertAndUpdate() {
+        SQLite3Table t0 = createTable("t0", false);
+        SQLite3Schema schema = new SQLite3Schema(Arrays.asList(t0), Collections.emptyList(), false);
+        schema.updateRowCounts("INSERT INTO t0 VALUES (1);", true, 1);
+        assertEquals(6, t0.rowCount);
+        schema.updateRowCounts("UPDATE t0 SET c0=1;", true, 6);
+        assertEquals(6, t0.rowCount);
+    }
+
+    @Test // a column constraint with ON CONFLICT REPLACE can make INSERT and UPDATE delete rows
+    public void testOnConflictReplace() {
+        SQLite3Table t0 = createTable("t0", true);
+        SQLite3Table t1 = createTable("t1", false);
+        SQLite3Schema schema = new SQLite3Schema(Arrays.asList(t0, t1), Collections.emptyList(), false);
+        schema.updateRowCounts("INSERT INTO t0 VALUES (1);", true, 1);
+        assertEquals(AbstractTable.NO_ROW_COUNT_AVAILABLE, t0.rowCount);
+        t0.setRowCount(5);
+        schema.updateRowCounts("UPDATE t0 SET c0=1;", true, 5);
+        assertEquals(AbstractTable.NO_ROW_COUNT_AVAILABLE, t0.rowCount);
+        assertEquals(5, t1.rowCount);
+    }
+
+}
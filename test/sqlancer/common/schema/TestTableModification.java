@@ -0,0 +1,56 @@
+package sqlancer.common.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.schema.TableModification.Kind;
+
+public class TestTableModification {
+
+    @Test
+    public void testNoModification() {
+        assertEquals(Kind.NONE, TableModification.of("SELECT * FROM t0;").getKind());
+        assertEquals(Kind.NONE, TableModification.of("COMMIT;").getKind());
+        assertEquals(Kind.NONE, TableModification.of("CREATE UNIQUE INDEX i0 ON t0(c0);").getKind());
+    }
+
+    @Test
+    public void testInsert() {
+        TableModification modification = TableModification.of("INSERT OR IGNORE INTO t0(c0, c1) VALUES (1, 2);");
+        assertEquals(Kind.INSERT, modification.getKind());
+        assertEquals("t0", modification.getTableName());
+        assertTrue(modification.isUpdateCountExact());
+        assertEquals("t1", TableModification.of("INSERT INTO \"t1\" VALUES (1);").getTableName());
+    }
+
+    @Test
+    public void testInsertThatCanReplaceRows() {
+        assertFalse(TableModification.of("INSERT OR REPLACE INTO t0 VALUES (1);").isUpdateCountExact());
+        assertFalse(TableModification.of("REPLACE INTO t0 VALUES (1);").isUpdateCountExact());
+        assertFalse(TableModification.of("INSERT INTO t0 VALUES (1) ON CONFLICT DO NOTHING;").isUpdateCountExact());
+        assertFalse(TableModification.of("INSERT INTO t0 VALUES (1) ON DUPLICATE KEY UPDATE c0=2;")
+                .isUpdateCountExact());
+    }
+
+    @Test
+    public void testUpdateDeleteTruncate() {
+        assertEquals(Kind.UPDATE, TableModification.of("UPDATE t0 SET c0=1;").getKind());
+        assertEquals(Kind.UNKNOWN, TableModification.of("UPDATE OR REPLACE t0 SET c0=1;").getKind());
+        TableModification delete = TableModification.of("DELETE FROM t0 WHERE c0;");
+        assertEquals(Kind.DELETE, delete.getKind());
+        assertEquals("t0", delete.getTableName());
+        assertEquals("t0", TableModification.of("TRUNCATE TABLE t0;").getTableName());
+        assertEquals(Kind.UNKNOWN, TableModification.of("TRUNCATE t0, t1;").getKind());
+    }
+
+    @Test
+    public void testUnknown() {
+        assertEquals(Kind.UNKNOWN, TableModification.of("ROLLBACK;").getKind());
+        assertEquals(Kind.UNKNOWN, TableModification.of("WITH x AS (SELECT 1) DELETE FROM t0;").getKind());
+        assertEquals(Kind.UNKNOWN, TableModification.of("DROP TABLE t0;").getKind());
+    }
+
+}
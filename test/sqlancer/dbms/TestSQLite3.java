@@ -15,4 +15,11 @@ public class TestSQLite3 {
                 "--num-threads", "1", "--num-queries", "0", "sqlite3" }));
     }
 
+    @Test
+    public void testSqliteDatabaseClones() {
+        assertEquals(0, Main.executeMain(new String[] { "--random-seed", "0", "--timeout-seconds", TestConfig.SECONDS,
+                "--num-threads", "1", "--num-queries", "10", "--database-clones", "2", "sqlite3", "--oracle",
+                "NoREC" }));
+    }
+
 }